@@ -1,21 +1,67 @@
 package CourseRegistrationSystem;
 
-import java.util.List;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 public class Course {
+    //guards the prerequisite graph of all courses; edits are rare and closures are read without it
+    private static final Object PREREQUISITE_LOCK = new Object();
+
     private final String code;
     private final String name;
     private final int credits;
     private final int capacity;
-    private List<String> enrolledStudentIds;
+    private final int waitlistCapacity;
+    //dense index assigned by CourseRegistrationSystem.addCourse before the course is published, -1 until then
+    private int index = -1;
+    //insertion ordered for display, O(1) membership checks
+    private final Set<String> enrolledStudentIds;
+    //immutable copy handed to readers, null after a change until the next read rebuilds it
+    private volatile List<String> enrolledSnapshot;
+    //students waiting for a seat in FIFO order, keyed by id so nobody queues twice
+    private final Map<String, Student> waitlist;
+    //seats freed by drops and held for a waitlisted student until the promoter enrolls them
+    private int reservedSeats;
+    //set once the course is being removed, after that nobody is enrolled or waitlisted anymore
+    private boolean removed;
+    private volatile List<TimeSlot> meetingTimes;
+    private volatile WeeklySchedule schedule;
+    //direct edges of the prerequisite graph in both directions
+    private final Set<Course> prerequisites;
+    private final Set<Course> dependents;
+    //bit per Course.getIndex() of every direct and indirect prerequisite
+    private volatile long[] prerequisiteClosure;
+    //guards enrollment of this course; taken before the student's lock, see Registration
+    private final Object enrollmentLock = new Object();
 
     public Course(String code, String name, int credits, int capacity) {
+        this(code, name, credits, capacity, Integer.MAX_VALUE);
+    }
+
+    public Course(String code, String name, int credits, int capacity, int waitlistCapacity) {
         this.code = code;
         this.name = name;
         this.credits = credits;
         this.capacity = capacity;
-        this.enrolledStudentIds = new ArrayList<>();
+        this.waitlistCapacity = waitlistCapacity;
+        this.enrolledStudentIds = new LinkedHashSet<>();
+        this.enrolledSnapshot = Collections.emptyList();
+        this.waitlist = new LinkedHashMap<>();
+        this.meetingTimes = Collections.emptyList();
+        this.schedule = WeeklySchedule.EMPTY;
+        this.prerequisites = new LinkedHashSet<>();
+        this.dependents = new LinkedHashSet<>();
+        this.prerequisiteClosure = new long[0];
     }
 
     public String getCode() {
@@ -34,25 +80,222 @@ public class Course {
         return capacity;
     }
 
+    public int getWaitlistCapacity() {
+        return waitlistCapacity;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    void assignIndex(int index) {
+        this.index = index;
+    }
+
+    public List<TimeSlot> getMeetingTimes() {
+        return meetingTimes;
+    }
+
+    // students' weekly schedules hold the current meeting times, so they are fixed once anyone is enrolled
+    public void setMeetingTimes(List<TimeSlot> meetingTimes) {
+        synchronized(enrollmentLock){
+            if (!enrolledStudentIds.isEmpty() || reservedSeats > 0) {
+                throw new IllegalStateException("Cannot change meeting times of " + code + " while students are enrolled");
+            }
+            this.meetingTimes = Collections.unmodifiableList(new ArrayList<>(meetingTimes));
+            this.schedule = WeeklySchedule.of(meetingTimes);
+        }
+    }
+
+    public WeeklySchedule getSchedule() {
+        return schedule;
+    }
+
+    public List<String> getPrerequisiteCodes() {
+        synchronized(PREREQUISITE_LOCK){
+            List<String> codes = new ArrayList<>();
+            for (Course prerequisite : prerequisites) {
+                codes.add(prerequisite.getCode());
+            }
+            return codes;
+        }
+    }
+
+    /**
+     * Requires the prerequisite and, transitively, everything it requires, now or later.
+     * Both courses must have been added to the registration system, which assigns their indexes.
+     * The prerequisite and its closure are added to the closures of this course and of
+     * every course requiring it.
+     */
+    public void addPrerequisite(Course prerequisite) {
+        if (index < 0 || prerequisite.index < 0) {
+            throw new IllegalStateException("Add " + code + " and " + prerequisite.getCode() + " to the registration system first");
+        }
+        synchronized(PREREQUISITE_LOCK){
+            //closures are kept complete under the lock, so a cycle shows as this course in the prerequisite's closure
+            if (prerequisite.index == index || isSet(prerequisite.prerequisiteClosure, index)) {
+                throw new IllegalArgumentException("Prerequisite cycle between " + code + " and " + prerequisite.getCode());
+            }
+            if (!prerequisites.add(prerequisite)) {
+                return;
+            }
+            prerequisite.dependents.add(this);
+            long[] added = withBit(prerequisite.prerequisiteClosure, prerequisite.index);
+            Set<Course> updated = new HashSet<>();
+            Deque<Course> stale = new ArrayDeque<>();
+            stale.add(this);
+            while (!stale.isEmpty()) {
+                Course course = stale.poll();
+                if (updated.add(course)) {
+                    //a fresh array, readers use the closure without the lock
+                    course.prerequisiteClosure = union(course.prerequisiteClosure, added);
+                    stale.addAll(course.dependents);
+                }
+            }
+        }
+    }
+
+    long[] getPrerequisiteClosure() {
+        return prerequisiteClosure;
+    }
+
+    private static boolean isSet(long[] words, int bit) {
+        return (bit >>> 6) < words.length && (words[bit >>> 6] & (1L << bit)) != 0;
+    }
+
+    private static long[] withBit(long[] words, int bit) {
+        long[] result = Arrays.copyOf(words, Math.max(words.length, (bit >>> 6) + 1));
+        result[bit >>> 6] |= 1L << bit;
+        return result;
+    }
+
+    private static long[] union(long[] a, long[] b) {
+        long[] result = Arrays.copyOf(a, Math.max(a.length, b.length));
+        for (int i = 0; i < b.length; i++) {
+            result[i] |= b[i];
+        }
+        return result;
+    }
+
+    Object getEnrollmentLock() {
+        return enrollmentLock;
+    }
+
     public int getEnrolledStudents(){
-        return enrolledStudentIds.size();
+        synchronized(enrollmentLock){
+            return enrolledStudentIds.size();
+        }
     }
 
-    public List<String> getEnrolledStudentIds() {
-        return new ArrayList<>(enrolledStudentIds);
+    // enrolled students plus seats reserved for waitlist promotions
+    public boolean isFull(){
+        synchronized(enrollmentLock){
+            return enrolledStudentIds.size() + reservedSeats >= capacity;
+        }
+    }
+
+    public int getWaitlistSize(){
+        synchronized(enrollmentLock){
+            return waitlist.size();
+        }
+    }
+
+    public List<String> getWaitlistedStudentIds(){
+        synchronized(enrollmentLock){
+            return new ArrayList<>(waitlist.keySet());
+        }
+    }
+
+    public boolean isWaitlisted(String studentId){
+        synchronized(enrollmentLock){
+            return waitlist.containsKey(studentId);
+        }
+    }
+
+    // the following are called with the enrollment lock held
+
+    // true if the student is on the waitlist afterwards, false if it is full
+    boolean addToWaitlist(Student student){
+        if (waitlist.containsKey(student.getId())) {
+            return true;
+        }
+        if (waitlist.size() >= waitlistCapacity) {
+            return false;
+        }
+        waitlist.put(student.getId(), student);
+        return true;
+    }
+
+    boolean removeFromWaitlist(String studentId){
+        return waitlist.remove(studentId) != null;
+    }
+
+    // the waitlist is dropped, registrations and promotions are refused from now on
+    void markRemoved(){
+        removed = true;
+        waitlist.clear();
+    }
+
+    boolean isRemoved(){
+        return removed;
+    }
+
+    // holds a free seat for the next waitlisted student and queues their promotion
+    void reserveForNextWaitlisted(WaitlistPromoter promoter){
+        if (enrolledStudentIds.size() + reservedSeats >= capacity) {
+            return;
+        }
+        Iterator<Student> next = waitlist.values().iterator();
+        while (next.hasNext()) {
+            Student student = next.next();
+            next.remove();
+            //already got in, the seat goes to the next one in line
+            if (!enrolledStudentIds.contains(student.getId())) {
+                reservedSeats++;
+                promoter.submit(this, student);
+                return;
+            }
+        }
     }
 
-    public void setEnrolledStudentIds(List<String> enrolledStudentIds) {
-        this.enrolledStudentIds = enrolledStudentIds;
+    void releaseReservation(){
+        reservedSeats--;
     }
 
-    public void addStudent(String studentId){
-        if (!enrolledStudentIds.contains(studentId)) {
-            enrolledStudentIds.add(studentId);
+    public boolean hasStudent(String studentId){
+        synchronized(enrollmentLock){
+            return enrolledStudentIds.contains(studentId);
         }
     }
 
-    public void removeStudent(String studentId){
-        enrolledStudentIds.remove(studentId);
+    // unmodifiable, shared between readers until the enrollment changes
+    public List<String> getEnrolledStudentIds() {
+        List<String> snapshot = enrolledSnapshot;
+        if (snapshot != null) {
+            return snapshot;
+        }
+        synchronized(enrollmentLock){
+            if (enrolledSnapshot == null) {
+                enrolledSnapshot = Collections.unmodifiableList(new ArrayList<>(enrolledStudentIds));
+            }
+            return enrolledSnapshot;
+        }
+    }
+
+    // the student's side is updated by the caller, see Registration
+    void addStudent(String studentId){
+        synchronized(enrollmentLock){
+            if (enrolledStudentIds.add(studentId)) {
+                enrolledSnapshot = null;
+            }
+        }
+    }
+
+    void removeStudent(String studentId){
+        synchronized(enrollmentLock){
+            if (enrolledStudentIds.remove(studentId)) {
+                enrolledSnapshot = null;
+            }
+        }
     }
 }
@@ -27,20 +27,20 @@ public class CourseRegistrationDemo {
         
         // Register students in courses
         System.out.println("Registering students in courses:");
-        system.registerStudentForCourse("S001", "CS101");
-        system.registerStudentForCourse("S001", "MATH201");
-        system.registerStudentForCourse("S002", "CS101");
-        system.registerStudentForCourse("S002", "ENG102");
-        system.registerStudentForCourse("S003", "MATH201");
-        system.registerStudentForCourse("S003", "ENG102");
+        System.out.println("Register S001 for CS101: " + system.registerStudentForCourse("S001", "CS101"));
+        System.out.println("Register S001 for MATH201: " + system.registerStudentForCourse("S001", "MATH201"));
+        System.out.println("Register S002 for CS101: " + system.registerStudentForCourse("S002", "CS101"));
+        System.out.println("Register S002 for ENG102: " + system.registerStudentForCourse("S002", "ENG102"));
+        System.out.println("Register S003 for MATH201: " + system.registerStudentForCourse("S003", "MATH201"));
+        System.out.println("Register S003 for ENG102: " + system.registerStudentForCourse("S003", "ENG102"));
         
         System.out.println("\nCurrent enrollments:");
         system.displayAllEnrollments();
         
         // Drop some courses
         System.out.println("\nDropping courses:");
-        system.dropStudentFromCourse("S001", "MATH201");
-        system.dropStudentFromCourse("S002", "ENG102");
+        System.out.println("Drop S001 from MATH201: " + system.dropStudentFromCourse("S001", "MATH201"));
+        System.out.println("Drop S002 from ENG102: " + system.dropStudentFromCourse("S002", "ENG102"));
         
         System.out.println("\nEnrollments after drops:");
         system.displayAllEnrollments();
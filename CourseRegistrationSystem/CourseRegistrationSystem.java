@@ -1,7 +1,27 @@
 package CourseRegistrationSystem;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import Journal.TabSeparatedCodec;
+import Journal.WriteAheadJournal;
 
 
 /**
@@ -14,7 +34,7 @@ import java.util.concurrent.ConcurrentHashMap;
  * Key design patterns used:
  * - Singleton Pattern: Ensures only one instance of the registration system
  * - Delegation Pattern: Delegates registration/drop operations to Registration class
- * - Thread Safety: Uses synchronized methods in Registration class for concurrent access
+ * - Thread Safety: Registration locks only the course and student involved, always course first
  */
 
 
@@ -22,13 +42,23 @@ import java.util.concurrent.ConcurrentHashMap;
 public class CourseRegistrationSystem{
     private final Map<String, Student> students;
     private final Map<String, Course> courses;
+    //dense index per course code, lets students and prerequisite closures keep courses in bitsets.
+    //A code keeps its index after its course is removed, completed-course bits still refer to it.
+    private final Map<String, Integer> courseIndexes = new ConcurrentHashMap<>();
+    private final AtomicInteger nextCourseIndex = new AtomicInteger();
     
     //defining multiple object for locking different functionalities
-    private static final Object REGISTRATION_LOCK = new Object();
     private static final Object STUDENT_MANAGEMENT_LOCK = new Object();
     private static final Object COURSE_MANAGEMENT_LOCK = new Object();
     private static final Object INSTANCE_LOCK = new Object();
     private static volatile CourseRegistrationSystem instance;
+    //courses per fork/join leaf task in registerBatch
+    private static final int BATCH_COURSES_PER_TASK = 8;
+    private final ForkJoinPool batchPool = new ForkJoinPool();
+
+    //optional write-ahead journal, null until enableJournal is called
+    private volatile WriteAheadJournal<String[]> journal;
+    private ScheduledExecutorService snapshotScheduler;
 
     
     private CourseRegistrationSystem(){
@@ -47,81 +77,390 @@ public class CourseRegistrationSystem{
         return instance;
     }
 
+    // dense index per course code, kept across removal so a re-added code gets its old bit back
+    int courseIndexOf(String courseCode) {
+        return courseIndexes.computeIfAbsent(courseCode, code -> nextCourseIndex.getAndIncrement());
+    }
+
     public void addStudent(Student student){
+        CompletableFuture<Void> write = null;
         synchronized(STUDENT_MANAGEMENT_LOCK){
             if(students.get(student.getId()) == null){
+                //queued before the student is visible, so no REGISTER of theirs can precede it in the log
+                write = journal(EnrollmentRecords.student(student));
                 students.put(student.getId(), student);
             }
         }
+        awaitDurable(write);
     }
-    public void removeStudent(String studentId) {
+    /**
+     * False if there is no such student. The student is marked removed first, so no
+     * registration or promotion can enroll them again; then they leave every waitlist and
+     * their courses are dropped. The journal writes are awaited after the locks are released.
+     */
+    public boolean removeStudent(String studentId) {
+        CompletableFuture<Void> pending;
         synchronized(STUDENT_MANAGEMENT_LOCK){
-            if(students.containsKey(studentId)){
-                students.remove(studentId);
+            Student student = students.get(studentId);
+            if (student == null) {
+                return false;
             }
-            else{
-                System.out.println("Student not found: "+ studentId);
+            synchronized(student.getEnrollmentLock()){
+                student.markRemoved();
             }
+            for (Course course : courses.values()) {
+                synchronized(course.getEnrollmentLock()){
+                    course.removeFromWaitlist(studentId);
+                }
+            }
+            List<CompletableFuture<Void>> writes = new ArrayList<>();
+            for (String courseCode : student.getEnrolledCourses()) {
+                Course course = courses.get(courseCode);
+                if (course != null) {
+                    writes.add(Registration.drop(student, course).write);
+                }
+            }
+            writes.add(journal(EnrollmentRecords.removal(EnrollmentRecords.REMOVE_STUDENT, studentId)));
+            students.remove(studentId);
+            pending = allOf(writes);
         }
+        awaitDurable(pending);
+        return true;
     }
 
     public void addCourse(Course course) {
+        CompletableFuture<Void> write = null;
         synchronized(COURSE_MANAGEMENT_LOCK){
             if (courses.get(course.getCode()) == null) {
+                course.assignIndex(courseIndexOf(course.getCode()));
+                write = journal(EnrollmentRecords.course(course));
                 courses.put(course.getCode(), course);
             }
         }
+        awaitDurable(write);
     }
 
-    public void removeCourse(String courseId) {
+    // false if there is no such course; marked removed like a student, then enrolled students are dropped
+    public boolean removeCourse(String courseId) {
+        CompletableFuture<Void> pending;
         synchronized(COURSE_MANAGEMENT_LOCK){
-            if (courses.containsKey(courseId)) {
-                courses.remove(courseId);
-            } else {
-                System.out.println("Course not found: " + courseId);
+            Course course = courses.get(courseId);
+            if (course == null) {
+                return false;
+            }
+            //nobody is enrolled in, waitlisted for or promoted into a course that is going away
+            synchronized(course.getEnrollmentLock()){
+                course.markRemoved();
             }
+            List<CompletableFuture<Void>> writes = new ArrayList<>();
+            for (String studentId : course.getEnrolledStudentIds()) {
+                Student student = students.get(studentId);
+                if (student != null) {
+                    writes.add(Registration.drop(student, course).write);
+                }
+            }
+            writes.add(journal(EnrollmentRecords.removal(EnrollmentRecords.REMOVE_COURSE, courseId)));
+            courses.remove(courseId);
+            pending = allOf(writes);
+        }
+        awaitDurable(pending);
+        return true;
+    }
 
+    // completes when every write did, exceptionally if any failed; null if there is nothing to wait for
+    static CompletableFuture<Void> allOf(List<CompletableFuture<Void>> writes) {
+        List<CompletableFuture<Void>> pending = new ArrayList<>();
+        for (CompletableFuture<Void> write : writes) {
+            if (write != null) {
+                pending.add(write);
+            }
         }
+        return pending.isEmpty() ? null : CompletableFuture.allOf(pending.toArray(new CompletableFuture<?>[0]));
     }
-    public void registerStudentForCourse(String studentId, String courseCode) {
-        
-        synchronized(REGISTRATION_LOCK)
-        {
-            Student student = students.get(studentId);
-            Course course = courses.get(courseCode);
-            
-            if (student == null) {
-                System.out.println("Student not found: " + studentId);
-                return;
+
+    /**
+     * Recovers students, courses and enrollments from the journal directory, then journals
+     * every change and snapshots the enrollments at the given interval. Students and
+     * courses added before this call are kept, so courses can be set up with their
+     * meeting times and prerequisites first; recovered ones are created from the journal.
+     * Waitlists are not journaled and start empty.
+     */
+    public synchronized void enableJournal(Path directory, Duration snapshotInterval) throws IOException {
+        if (journal != null) {
+            throw new IllegalStateException("journal already enabled");
+        }
+        WriteAheadJournal<String[]> newJournal = new WriteAheadJournal<>(directory, "enrollment", TabSeparatedCodec.INSTANCE);
+        List<Student> snapshotStudents = new ArrayList<>();
+        newJournal.recover(fields -> applyJournalRecord(fields, snapshotStudents));
+        journal = newJournal;
+        takeSnapshot();
+
+        snapshotScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "enrollment-snapshot");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalMillis = snapshotInterval.toMillis();
+        snapshotScheduler.scheduleAtFixedRate(() -> {
+            try {
+                takeSnapshot();
+            } catch (IOException e) {
+                System.err.println("enrollment snapshot failed: " + e.getMessage());
             }
-            
-            if (course == null) {
-                System.out.println("Course not found: " + courseCode);
-                return;
+        }, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    // stops snapshotting and closes the journal; writes still queued fail instead of hanging
+    public synchronized void disableJournal() {
+        if (journal == null) {
+            return;
+        }
+        snapshotScheduler.shutdownNow();
+        try {
+            snapshotScheduler.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        journal.close();
+        journal = null;
+        snapshotScheduler = null;
+    }
+
+    // the snapshot is fuzzy, replaying the segments after it is idempotent and fixes it up
+    public void takeSnapshot() throws IOException {
+        WriteAheadJournal<String[]> current = journal;
+        if (current == null) {
+            return;
+        }
+        long firstSegmentToReplay = current.rotate();
+        List<String[]> records = new ArrayList<>();
+        Map<String, Integer> ordinals = new HashMap<>();
+        for (Student student : students.values()) {
+            ordinals.put(student.getId(), ordinals.size());
+            records.add(EnrollmentRecords.student(student));
+        }
+        for (Course course : courses.values()) {
+            records.add(EnrollmentRecords.course(course));
+            BitSet enrolled = new BitSet(ordinals.size());
+            for (String studentId : course.getEnrolledStudentIds()) {
+                Integer ordinal = ordinals.get(studentId);
+                if (ordinal != null) {
+                    enrolled.set(ordinal);
+                }
             }
-            
-            // Use Registration class static method for the actual registration logic
-            Registration.performRegistration(student, course);
+            records.add(EnrollmentRecords.enrollment(course, enrolled));
         }
+        current.writeSnapshot(firstSegmentToReplay, records);
     }
 
-    public void dropStudentFromCourse(String studentId, String courseCode) {
-        synchronized(REGISTRATION_LOCK){
-            Student student = students.get(studentId);
-            Course course = courses.get(courseCode);
-            
-            if (student == null) {
-                System.out.println("Student not found: " + studentId);
-                return;
+    // queues a journal record, null if journaling is off; callers hold the lock of the change
+    // being journaled so records are in change order, and await the write after releasing it
+    CompletableFuture<Void> journal(String[] record) {
+        WriteAheadJournal<String[]> current = journal;
+        return current == null ? null : current.append(record);
+    }
+
+    // a failed write is thrown instead of printed, so the change is never acknowledged as durable
+    static void awaitDurable(CompletableFuture<Void> write) {
+        if (write == null) {
+            return;
+        }
+        try {
+            write.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw new UncheckedIOException("enrollment journal write failed", (IOException) cause);
             }
-            
-            if (course == null) {
-                System.out.println("Course not found: " + courseCode);
+            throw e;
+        }
+    }
+
+    private void applyJournalRecord(String[] fields, List<Student> snapshotStudents) {
+        switch (fields[0]) {
+            case EnrollmentRecords.STUDENT: {
+                Student student = students.computeIfAbsent(fields[1], id -> new Student(id, fields[2], fields[3]));
+                snapshotStudents.add(student);
+                break;
+            }
+            case EnrollmentRecords.COURSE:
+                courses.computeIfAbsent(fields[1], code -> {
+                    Course course = new Course(code, fields[2], Integer.parseInt(fields[3]),
+                            Integer.parseInt(fields[4]), Integer.parseInt(fields[5]));
+                    course.assignIndex(courseIndexOf(code));
+                    return course;
+                });
+                break;
+            case EnrollmentRecords.REMOVE_STUDENT:
+                students.remove(fields[1]);
+                break;
+            case EnrollmentRecords.REMOVE_COURSE:
+                courses.remove(fields[1]);
+                break;
+            case EnrollmentRecords.REGISTER:
+            case EnrollmentRecords.DROP: {
+                Student student = students.get(fields[1]);
+                Course course = courses.get(fields[2]);
+                if (student == null || course == null) {
+                    System.err.println("Cannot replay " + fields[0] + " of " + fields[1] + " in " + fields[2] + ", unknown student or course");
+                    break;
+                }
+                restoreEnrollment(student, course, fields[0].equals(EnrollmentRecords.REGISTER));
+                break;
+            }
+            case EnrollmentRecords.ENROLLMENT: {
+                Course course = courses.get(fields[1]);
+                if (course == null) {
+                    break;
+                }
+                BitSet enrolled = EnrollmentRecords.decodeBitmap(fields[2]);
+                for (int ordinal = enrolled.nextSetBit(0); ordinal >= 0; ordinal = enrolled.nextSetBit(ordinal + 1)) {
+                    restoreEnrollment(snapshotStudents.get(ordinal), course, true);
+                }
+                break;
+            }
+            default:
+                System.err.println("Unknown enrollment journal record: " + fields[0]);
+        }
+    }
+
+    // replayed changes were valid when made, so capacity and eligibility are not checked again
+    private static void restoreEnrollment(Student student, Course course, boolean enrolled) {
+        synchronized(course.getEnrollmentLock()){
+            synchronized(student.getEnrollmentLock()){
+                if (enrolled && !student.isEnrolledIn(course)) {
+                    course.addStudent(student.getId());
+                    student.enroll(course);
+                } else if (!enrolled && student.isEnrolledIn(course)) {
+                    course.removeStudent(student.getId());
+                    student.unenroll(course);
+                }
+            }
+        }
+    }
+    // receives every registration outcome asynchronously, null to stop
+    public void setRegistrationListener(RegistrationListener listener) {
+        RegistrationEvents.getInstance().setListener(listener);
+    }
+
+    // no system-wide lock, Registration serializes per course
+    public RegistrationResult registerStudentForCourse(String studentId, String courseCode) {
+        Student student = students.get(studentId);
+        Course course = courses.get(courseCode);
+
+        RegistrationResult missing = checkExists(studentId, student, courseCode, course);
+        if (missing != null) {
+            return missing;
+        }
+
+        // Use Registration class static method for the actual registration logic
+        return Registration.performRegistration(student, course);
+    }
+
+    public RegistrationResult dropStudentFromCourse(String studentId, String courseCode) {
+        Student student = students.get(studentId);
+        Course course = courses.get(courseCode);
+
+        RegistrationResult missing = checkExists(studentId, student, courseCode, course);
+        if (missing != null) {
+            return missing;
+        }
+
+        // Use Registration class static method for the actual drop logic
+        return Registration.performDrop(student, course);
+    }
+
+    private static RegistrationResult checkExists(String studentId, Student student, String courseCode, Course course) {
+        RegistrationResult missing = null;
+        if (student == null) {
+            missing = RegistrationResult.STUDENT_NOT_FOUND;
+        } else if (course == null) {
+            missing = RegistrationResult.COURSE_NOT_FOUND;
+        }
+        if (missing != null) {
+            RegistrationEvents.getInstance().publish(studentId, courseCode, missing);
+        }
+        return missing;
+    }
+
+    /**
+     * Registers a whole batch of requests and returns one result per request, in the
+     * order of the batch. Requests are partitioned by course and the courses are
+     * processed in parallel; within a course, requests are served by descending
+     * priority and then batch order, so the outcome does not depend on thread timing.
+     */
+    public RegistrationResult[] registerBatch(List<RegistrationRequest> requests) {
+        RegistrationResult[] results = new RegistrationResult[requests.size()];
+        Map<String, List<Integer>> requestsByCourse = new HashMap<>();
+        for (int i = 0; i < requests.size(); i++) {
+            RegistrationRequest request = requests.get(i);
+            RegistrationResult missing = checkExists(request.getStudentId(), students.get(request.getStudentId()),
+                    request.getCourseCode(), courses.get(request.getCourseCode()));
+            if (missing != null) {
+                results[i] = missing;
+            } else {
+                requestsByCourse.computeIfAbsent(request.getCourseCode(), code -> new ArrayList<>()).add(i);
+            }
+        }
+        List<List<Integer>> partitions = new ArrayList<>(requestsByCourse.values());
+        batchPool.invoke(new BatchTask(requests, partitions, 0, partitions.size(), results));
+        return results;
+    }
+
+    private class BatchTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final List<RegistrationRequest> requests;
+        private final List<List<Integer>> partitions;
+        private final int from;
+        private final int to;
+        private final RegistrationResult[] results;
+
+        BatchTask(List<RegistrationRequest> requests, List<List<Integer>> partitions, int from, int to, RegistrationResult[] results) {
+            this.requests = requests;
+            this.partitions = partitions;
+            this.from = from;
+            this.to = to;
+            this.results = results;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > BATCH_COURSES_PER_TASK) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new BatchTask(requests, partitions, from, middle, results),
+                        new BatchTask(requests, partitions, middle, to, results));
                 return;
             }
-            
-            // Use Registration class static method for the actual drop logic
-            Registration.performDrop(student, course);
+            for (int p = from; p < to; p++) {
+                registerCoursePartition(partitions.get(p));
+            }
+        }
+
+        // every request of the partition is for the same course, each partition runs on one thread
+        private void registerCoursePartition(List<Integer> requestIndexes) {
+            Integer[] ordered = requestIndexes.toArray(new Integer[0]);
+            Arrays.sort(ordered, (a, b) -> {
+                int byPriority = Integer.compare(requests.get(b).getPriority(), requests.get(a).getPriority());
+                return byPriority != 0 ? byPriority : Integer.compare(a, b);
+            });
+            Course course = courses.get(requests.get(ordered[0]).getCourseCode());
+            List<CompletableFuture<Void>> writes = new ArrayList<>();
+            for (int index : ordered) {
+                Student student = students.get(requests.get(index).getStudentId());
+                if (course == null) {
+                    results[index] = RegistrationResult.COURSE_NOT_FOUND;
+                } else if (student == null) {
+                    results[index] = RegistrationResult.STUDENT_NOT_FOUND;
+                } else {
+                    Registration.Outcome outcome = Registration.register(student, course);
+                    results[index] = outcome.result;
+                    writes.add(outcome.write);
+                }
+            }
+            awaitDurable(allOf(writes));
+            for (int index : ordered) {
+                RegistrationEvents.getInstance().publish(requests.get(index).getStudentId(), requests.get(index).getCourseCode(), results[index]);
+            }
         }
     }
 
@@ -173,6 +512,9 @@ public class CourseRegistrationSystem{
             System.out.println("Course: " + course.getName() + " (" + course.getCode() + ")");
             System.out.println("  Capacity: " + course.getEnrolledStudents() + "/" + course.getCapacity());
             System.out.println("  Enrolled students: " + course.getEnrolledStudentIds());
+            if (course.getWaitlistSize() > 0) {
+                System.out.println("  Waitlist: " + course.getWaitlistedStudentIds());
+            }
         }
     }
 
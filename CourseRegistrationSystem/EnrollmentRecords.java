@@ -0,0 +1,58 @@
+package CourseRegistrationSystem;
+
+import java.util.Base64;
+import java.util.BitSet;
+
+/**
+ * Fields of the enrollment journal records, written by a WriteAheadJournal with the
+ * TabSeparatedCodec.
+ *
+ *   STUDENT         id name email
+ *   COURSE          code name credits capacity waitlistCapacity
+ *   REMOVE_STUDENT  id
+ *   REMOVE_COURSE   code
+ *   REGISTER        studentId courseCode      (also written for waitlist promotions)
+ *   DROP            studentId courseCode
+ *   ENROLLMENT      courseCode bitmap         (snapshots)
+ *
+ * A snapshot lists every STUDENT first; an ENROLLMENT bitmap has bit i set when the
+ * i-th student of the snapshot is enrolled, base64 encoded.
+ */
+final class EnrollmentRecords {
+    static final String STUDENT = "STUDENT";
+    static final String COURSE = "COURSE";
+    static final String REMOVE_STUDENT = "REMOVE_STUDENT";
+    static final String REMOVE_COURSE = "REMOVE_COURSE";
+    static final String REGISTER = "REGISTER";
+    static final String DROP = "DROP";
+    static final String ENROLLMENT = "ENROLLMENT";
+
+    private EnrollmentRecords() {
+    }
+
+    static String[] student(Student student) {
+        return new String[] {STUDENT, student.getId(), student.getName(), student.getEmail()};
+    }
+
+    static String[] course(Course course) {
+        return new String[] {COURSE, course.getCode(), course.getName(),
+                Integer.toString(course.getCredits()), Integer.toString(course.getCapacity()),
+                Integer.toString(course.getWaitlistCapacity())};
+    }
+
+    static String[] removal(String type, String id) {
+        return new String[] {type, id};
+    }
+
+    static String[] enrollmentChange(String type, Student student, Course course) {
+        return new String[] {type, student.getId(), course.getCode()};
+    }
+
+    static String[] enrollment(Course course, BitSet studentOrdinals) {
+        return new String[] {ENROLLMENT, course.getCode(), Base64.getEncoder().encodeToString(studentOrdinals.toByteArray())};
+    }
+
+    static BitSet decodeBitmap(String encoded) {
+        return BitSet.valueOf(Base64.getDecoder().decode(encoded));
+    }
+}
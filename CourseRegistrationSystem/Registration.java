@@ -1,5 +1,7 @@
 package CourseRegistrationSystem;
 
+import java.util.concurrent.CompletableFuture;
+
 public class Registration {
     private Student student;
     private Course course;
@@ -25,51 +27,130 @@ public class Registration {
         this.course = course;
     }
 
-    public synchronized void registerCourse(Student student, Course course){
-        // Check if student is already enrolled
-        if (student.getEnrolledCourses().contains(course.getCode())) {
-            System.out.println("Student " + student.getId() + " is already enrolled in course " + course.getCode());
-            return;
+    // Locks only the course and then the student, so registrations for different courses run in parallel.
+    // Every path takes the course lock first and holds at most one course lock, so lock order cannot cycle.
+    // Nothing is printed; the outcome is returned and published to the RegistrationListener, if any.
+    public RegistrationResult registerCourse(Student student, Course course){
+        RegistrationResult result = tryRegister(student, course);
+        RegistrationEvents.getInstance().publish(student.getId(), course.getCode(), result);
+        return result;
+    }
+
+    // null if the student may take the course, called with the student's lock held
+    static RegistrationResult checkEligibility(Student student, Course course){
+        if (!student.hasCompletedAll(course.getPrerequisiteClosure())) {
+            return RegistrationResult.PREREQUISITES_NOT_MET;
         }
-        
-        // Check course capacity
-        if(course.getEnrolledStudents() >= course.getCapacity()){
-            System.out.println("Course " + course.getCode() + " is full. Cannot register student " + student.getId());
-            return;
+        if (student.conflictsWith(course)) {
+            return RegistrationResult.SCHEDULE_CONFLICT;
         }
-        
-        // Perform registration
-        course.addStudent(student.getId());
-        student.addCourse(course.getCode());
-        System.out.println("Student " + student.getId() + " successfully registered for course " + course.getCode());
+        return null;
     }
 
-    public synchronized void dropCourse(Student student, Course course) {
-        if (!student.getEnrolledCourses().contains(course.getCode())) {
-            System.out.println("Student " + student.getId() + " is not enrolled in course " + course.getCode());
-            return;
+    // registration logic without publishing, returns once the change is durable if journaling is on
+    static RegistrationResult tryRegister(Student student, Course course){
+        Outcome outcome = register(student, course);
+        CourseRegistrationSystem.awaitDurable(outcome.write);
+        return outcome.result;
+    }
+
+    // applies the registration and queues its journal record under the locks, so records are in
+    // the order of the changes; the disk write is left to the caller to await outside the locks
+    static Outcome register(Student student, Course course){
+        synchronized(course.getEnrollmentLock()){
+            synchronized(student.getEnrollmentLock()){
+                // A student or course being removed, or a course never added, takes no new enrollments
+                if (course.isRemoved() || course.getIndex() < 0) {
+                    return new Outcome(RegistrationResult.COURSE_NOT_FOUND, null);
+                }
+                if (student.isRemoved()) {
+                    return new Outcome(RegistrationResult.STUDENT_NOT_FOUND, null);
+                }
+
+                // Check if student is already enrolled
+                if (student.isEnrolledIn(course)) {
+                    return new Outcome(RegistrationResult.ALREADY_ENROLLED, null);
+                }
+
+                RegistrationResult ineligible = checkEligibility(student, course);
+                if (ineligible != null) {
+                    return new Outcome(ineligible, null);
+                }
+
+                // Check course capacity, seats reserved for waitlisted students count as taken
+                if(course.isFull()){
+                    //queued once, retries while waiting do not add load
+                    return new Outcome(course.addToWaitlist(student) ? RegistrationResult.WAITLISTED : RegistrationResult.COURSE_FULL, null);
+                }
+
+                // Perform registration
+                course.addStudent(student.getId());
+                student.enroll(course);
+                course.removeFromWaitlist(student.getId());
+                return new Outcome(RegistrationResult.REGISTERED, CourseRegistrationSystem.getInstance()
+                        .journal(EnrollmentRecords.enrollmentChange(EnrollmentRecords.REGISTER, student, course)));
+            }
+        }
+    }
+
+    public RegistrationResult dropCourse(Student student, Course course) {
+        RegistrationResult result = tryDrop(student, course);
+        RegistrationEvents.getInstance().publish(student.getId(), course.getCode(), result);
+        return result;
+    }
+
+    static RegistrationResult tryDrop(Student student, Course course) {
+        Outcome outcome = drop(student, course);
+        CourseRegistrationSystem.awaitDurable(outcome.write);
+        return outcome.result;
+    }
+
+    // like register, the journal record is queued under the locks and awaited by the caller
+    static Outcome drop(Student student, Course course) {
+        CompletableFuture<Void> write;
+        synchronized(course.getEnrollmentLock()){
+            synchronized(student.getEnrollmentLock()){
+                if (!student.isEnrolledIn(course)) {
+                    return new Outcome(RegistrationResult.NOT_ENROLLED, null);
+                }
+
+                // Perform drop
+                course.removeStudent(student.getId());
+                student.unenroll(course);
+                write = CourseRegistrationSystem.getInstance()
+                        .journal(EnrollmentRecords.enrollmentChange(EnrollmentRecords.DROP, student, course));
+            }
+            // the freed seat is held for the head of the waitlist before the course lock is released
+            course.reserveForNextWaitlisted(WaitlistPromoter.getInstance());
+        }
+        return new Outcome(RegistrationResult.DROPPED, write);
+    }
+
+    // result of register or drop plus its pending journal write, null if nothing changed or journaling is off
+    static final class Outcome {
+        final RegistrationResult result;
+        final CompletableFuture<Void> write;
+
+        Outcome(RegistrationResult result, CompletableFuture<Void> write) {
+            this.result = result;
+            this.write = write;
         }
-        
-        // Perform drop
-        course.removeStudent(student.getId());
-        student.removeCourse(course.getCode());
-        System.out.println("Student " + student.getId() + " successfully dropped from course " + course.getCode());
     }
 
     // Static utility methods for direct registration/dropping without creating Registration instances
-    public static synchronized void performRegistration(Student student, Course course) {
+    public static RegistrationResult performRegistration(Student student, Course course) {
         Registration registration = new Registration(student, course);
-        registration.registerCourse(student, course);
+        return registration.registerCourse(student, course);
     }
 
-    public static synchronized void performDrop(Student student, Course course) {
+    public static RegistrationResult performDrop(Student student, Course course) {
         Registration registration = new Registration(student, course);
-        registration.dropCourse(student, course);
+        return registration.dropCourse(student, course);
     }
 
     // Method to get registration status
     public boolean isStudentRegistered() {
-        return student.getEnrolledCourses().contains(course.getCode());
+        return student.isEnrolledIn(course);
     }
 
     @Override
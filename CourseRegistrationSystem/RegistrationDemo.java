@@ -6,6 +6,13 @@ public class RegistrationDemo {
         
         // Get the singleton instance
         CourseRegistrationSystem system = CourseRegistrationSystem.getInstance();
+
+        // Waitlist promotions happen in the background, the listener reports them
+        system.setRegistrationListener((studentId, courseCode, result) -> {
+            if (result == RegistrationResult.PROMOTED) {
+                System.out.println("Student " + studentId + " promoted from the waitlist of " + courseCode);
+            }
+        });
         
         // Add students and courses
         Student student1 = new Student("REG001", "John Doe", "john@email.com");
@@ -20,13 +27,13 @@ public class RegistrationDemo {
         system.addCourse(course2);
         
         System.out.println("1. Using CourseRegistrationSystem methods (which delegate to Registration):");
-        system.registerStudentForCourse("REG001", "JAVA101");
-        system.registerStudentForCourse("REG002", "JAVA101");
+        System.out.println("Register REG001 for JAVA101: " + system.registerStudentForCourse("REG001", "JAVA101"));
+        System.out.println("Register REG002 for JAVA101: " + system.registerStudentForCourse("REG002", "JAVA101"));
         
-        // Try to register a third student (should fail due to capacity)
+        // Try to register a third student (course is full, goes on the waitlist)
         Student student3 = new Student("REG003", "Bob Wilson", "bob@email.com");
         system.addStudent(student3);
-        system.registerStudentForCourse("REG003", "JAVA101");
+        System.out.println("Register REG003 for JAVA101: " + system.registerStudentForCourse("REG003", "JAVA101"));
         
         System.out.println("\n2. Using Registration class directly:");
         
@@ -37,24 +44,24 @@ public class RegistrationDemo {
         
         if (reg1 != null) {
             System.out.println("Registration object: " + reg1);
-            reg1.registerCourse(student1, course2);
+            System.out.println("Register " + student1.getId() + " for " + course2.getCode() + ": " + reg1.registerCourse(student1, course2));
         }
         
         if (reg2 != null) {
-            reg2.registerCourse(student2, course2);
+            System.out.println("Register " + student2.getId() + " for " + course2.getCode() + ": " + reg2.registerCourse(student2, course2));
         }
         
         if (reg3 != null) {
-            reg3.registerCourse(student3, course2);
+            System.out.println("Register " + student3.getId() + " for " + course2.getCode() + ": " + reg3.registerCourse(student3, course2));
         }
         
         System.out.println("\n3. Using static Registration methods:");
         
         // Try to register someone who's already registered (should fail)
-        Registration.performRegistration(student1, course2);
+        System.out.println("Register " + student1.getId() + " for " + course2.getCode() + ": " + Registration.performRegistration(student1, course2));
         
         // Test dropping courses
-        Registration.performDrop(student1, course1);
+        System.out.println("Drop " + student1.getId() + " from " + course1.getCode() + ": " + Registration.performDrop(student1, course1));
         
         System.out.println("\n4. Display individual student registrations:");
         system.displayStudentRegistrations("REG001");
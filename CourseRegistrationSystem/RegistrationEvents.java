@@ -0,0 +1,53 @@
+package CourseRegistrationSystem;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Hands registration outcomes to the optional listener on a background thread, so
+ * callers never wait for listener I/O. Costs a volatile read when no listener is set.
+ */
+public class RegistrationEvents {
+    private static final Object INSTANCE_LOCK = new Object();
+    private static volatile RegistrationEvents instance;
+
+    private volatile RegistrationListener listener;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "registration-events");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private RegistrationEvents() {
+    }
+
+    public static RegistrationEvents getInstance() {
+        if (instance == null) {
+            synchronized (INSTANCE_LOCK) {
+                if (instance == null) {
+                    instance = new RegistrationEvents();
+                }
+            }
+        }
+        return instance;
+    }
+
+    // null removes the listener
+    public void setListener(RegistrationListener listener) {
+        this.listener = listener;
+    }
+
+    void publish(String studentId, String courseCode, RegistrationResult result) {
+        RegistrationListener current = listener;
+        if (current == null) {
+            return;
+        }
+        executor.execute(() -> {
+            try {
+                current.onRegistrationEvent(studentId, courseCode, result);
+            } catch (RuntimeException e) {
+                System.err.println("Registration listener failed: " + e.getMessage());
+            }
+        });
+    }
+}
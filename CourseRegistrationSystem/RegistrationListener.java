@@ -0,0 +1,11 @@
+package CourseRegistrationSystem;
+
+/**
+ * Receives registration outcomes on the "registration-events" thread, never inside a
+ * course or student lock. Events are published after the locks are released, so two
+ * concurrent changes of the same student and course may arrive in either order; read the
+ * course's current enrollment when the latest state matters.
+ */
+public interface RegistrationListener {
+    void onRegistrationEvent(String studentId, String courseCode, RegistrationResult result);
+}
@@ -0,0 +1,42 @@
+package CourseRegistrationSystem;
+
+/**
+ * One entry of a bulk registration. Within a course, requests with a higher priority
+ * (e.g. seniority) are served first, ties keep their order in the batch.
+ */
+public class RegistrationRequest {
+    private final String studentId;
+    private final String courseCode;
+    private final int priority;
+
+    public RegistrationRequest(String studentId, String courseCode, int priority) {
+        this.studentId = studentId;
+        this.courseCode = courseCode;
+        this.priority = priority;
+    }
+
+    public RegistrationRequest(String studentId, String courseCode) {
+        this(studentId, courseCode, 0);
+    }
+
+    public String getStudentId() {
+        return studentId;
+    }
+
+    public String getCourseCode() {
+        return courseCode;
+    }
+
+    public int getPriority() {
+        return priority;
+    }
+
+    @Override
+    public String toString() {
+        return "RegistrationRequest{" +
+                "studentId=" + studentId +
+                ", courseCode=" + courseCode +
+                ", priority=" + priority +
+                '}';
+    }
+}
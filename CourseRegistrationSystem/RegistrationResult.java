@@ -0,0 +1,31 @@
+package CourseRegistrationSystem;
+
+/**
+ * Outcome of a registration, drop or waitlist promotion.
+ */
+public enum RegistrationResult {
+    REGISTERED,
+    ALREADY_ENROLLED,
+    PREREQUISITES_NOT_MET,
+    //meets at a time the student already has another course
+    SCHEDULE_CONFLICT,
+    //course is full and has no waitlist room
+    COURSE_FULL,
+    //course is full, the student is queued and enrolled automatically when a seat frees up
+    WAITLISTED,
+    //enrolled from the waitlist after a drop, only reported to the RegistrationListener
+    PROMOTED,
+    DROPPED,
+    NOT_ENROLLED,
+    STUDENT_NOT_FOUND,
+    COURSE_NOT_FOUND;
+
+    public boolean isSuccess() {
+        return this == REGISTERED || this == PROMOTED || this == DROPPED;
+    }
+
+    // worth retrying later as is, e.g. once a seat frees up
+    public boolean isRetryable() {
+        return this == COURSE_FULL;
+    }
+}
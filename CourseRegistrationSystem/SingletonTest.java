@@ -22,7 +22,7 @@ public class SingletonTest {
         system2.addCourse(testCourse);
         
         // Register student for course using first instance
-        system1.registerStudentForCourse("TEST001", "TEST101");
+        System.out.println("Register TEST001 for TEST101: " + system1.registerStudentForCourse("TEST001", "TEST101"));
         
         // Display enrollments using second instance to verify data consistency
         system2.displayAllEnrollments();
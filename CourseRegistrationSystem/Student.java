@@ -1,19 +1,40 @@
 package CourseRegistrationSystem;
 
-import java.util.List;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
 
 public class Student {
     private final String id;
     private final String name;
     private final String email;
-    private List<String> enrolledCourses;
+    private final Set<String> enrolledCourses;
+    //bit per Course.getIndex(), membership test without hashing the code
+    private final BitSet enrolledCourseIndexes;
+    //immutable copy handed to readers, null after a change until the next read rebuilds it
+    private volatile List<String> enrolledSnapshot;
+    //half-hour bits of the meeting times of the enrolled courses, see WeeklySchedule
+    private final long[] scheduleWords;
+    //bit per Course.getIndex() of every passed course
+    private long[] completedCourseWords;
+    //set once the student is being removed, registrations and promotions are refused from then on
+    private boolean removed;
+    //guards the enrollment fields; always taken after a course's lock, never before one
+    private final Object enrollmentLock = new Object();
 
     public Student(String id, String name, String email) {
         this.id = id;
         this.name = name;
         this.email = email;
-        this.enrolledCourses = new ArrayList<>();
+        this.enrolledCourses = new LinkedHashSet<>();
+        this.enrolledCourseIndexes = new BitSet();
+        this.enrolledSnapshot = Collections.emptyList();
+        this.scheduleWords = new long[WeeklySchedule.WORDS];
+        this.completedCourseWords = new long[0];
     }
 
     public String getId() {
@@ -28,21 +49,102 @@ public class Student {
         return email;
     }
 
+    Object getEnrollmentLock() {
+        return enrollmentLock;
+    }
+
+    // unmodifiable, shared between readers until the enrollment changes
     public List<String> getEnrolledCourses() {
-        return enrolledCourses;
+        List<String> snapshot = enrolledSnapshot;
+        if (snapshot != null) {
+            return snapshot;
+        }
+        synchronized(enrollmentLock){
+            if (enrolledSnapshot == null) {
+                enrolledSnapshot = Collections.unmodifiableList(new ArrayList<>(enrolledCourses));
+            }
+            return enrolledSnapshot;
+        }
     }
 
-    public void setEnrolledCourses(List<String> enrolledCourses) {
-        this.enrolledCourses = enrolledCourses;
+    public boolean isEnrolledIn(Course course){
+        synchronized(enrollmentLock){
+            //courses not added to the registration system have no index and no enrollments
+            return course.getIndex() >= 0 && enrolledCourseIndexes.get(course.getIndex());
+        }
     }
 
-    public void addCourse(String courseCode){
-        if (!enrolledCourses.contains(courseCode)) {
-            enrolledCourses.add(courseCode);
+    public boolean isEnrolledIn(String courseCode){
+        synchronized(enrollmentLock){
+            return enrolledCourses.contains(courseCode);
         }
     }
-    
-    public void removeCourse(String courseCode){
-        enrolledCourses.remove(courseCode);
+
+    // completions are kept by the course's dense index, which the registration system reserves per code
+    public void completeCourse(String courseCode){
+        int bit = CourseRegistrationSystem.getInstance().courseIndexOf(courseCode);
+        synchronized(enrollmentLock){
+            if ((bit >>> 6) >= completedCourseWords.length) {
+                completedCourseWords = Arrays.copyOf(completedCourseWords, (bit >>> 6) + 1);
+            }
+            completedCourseWords[bit >>> 6] |= 1L << bit;
+        }
+    }
+
+    public boolean hasCompleted(String courseCode){
+        int bit = CourseRegistrationSystem.getInstance().courseIndexOf(courseCode);
+        synchronized(enrollmentLock){
+            return (bit >>> 6) < completedCourseWords.length && (completedCourseWords[bit >>> 6] & (1L << bit)) != 0;
+        }
+    }
+
+    // true if every course of the prerequisite closure is completed
+    boolean hasCompletedAll(long[] closure){
+        synchronized(enrollmentLock){
+            for (int i = 0; i < closure.length; i++) {
+                long completed = i < completedCourseWords.length ? completedCourseWords[i] : 0;
+                if ((closure[i] & ~completed) != 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    public boolean conflictsWith(Course course){
+        synchronized(enrollmentLock){
+            return course.getSchedule().conflictsWith(scheduleWords);
+        }
+    }
+
+    // the following are called with the enrollment lock held
+
+    void markRemoved(){
+        removed = true;
+    }
+
+    boolean isRemoved(){
+        return removed;
+    }
+
+    // enrollment through Registration, keeps the weekly schedule in step with the courses
+    void enroll(Course course){
+        synchronized(enrollmentLock){
+            if (enrolledCourses.add(course.getCode())) {
+                enrolledCourseIndexes.set(course.getIndex());
+                course.getSchedule().addTo(scheduleWords);
+                enrolledSnapshot = null;
+            }
+        }
+    }
+
+    void unenroll(Course course){
+        synchronized(enrollmentLock){
+            if (enrolledCourses.remove(course.getCode())) {
+                enrolledCourseIndexes.clear(course.getIndex());
+                course.getSchedule().removeFrom(scheduleWords);
+                enrolledSnapshot = null;
+            }
+        }
     }
 }
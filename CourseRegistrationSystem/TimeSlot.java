@@ -0,0 +1,40 @@
+package CourseRegistrationSystem;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+
+/**
+ * Weekly meeting time of a course, e.g. MONDAY 09:00-10:30. Times are rounded out to
+ * whole half hours when the slot is put in a WeeklySchedule.
+ */
+public class TimeSlot {
+    private final DayOfWeek day;
+    private final LocalTime start;
+    private final LocalTime end;
+
+    public TimeSlot(DayOfWeek day, LocalTime start, LocalTime end) {
+        if (!end.isAfter(start)) {
+            throw new IllegalArgumentException("Time slot must end after it starts: " + start + "-" + end);
+        }
+        this.day = day;
+        this.start = start;
+        this.end = end;
+    }
+
+    public DayOfWeek getDay() {
+        return day;
+    }
+
+    public LocalTime getStart() {
+        return start;
+    }
+
+    public LocalTime getEnd() {
+        return end;
+    }
+
+    @Override
+    public String toString() {
+        return day + " " + start + "-" + end;
+    }
+}
@@ -0,0 +1,113 @@
+package CourseRegistrationSystem;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Turns seats reserved for waitlisted students into enrollments off the caller's thread.
+ *
+ * A drop reserves the freed seat for the head of the course's waitlist while it still
+ * holds the course lock, so no other registration can take it, and only queues the
+ * promotion here. One worker drains the queue in batches.
+ */
+public class WaitlistPromoter {
+    private static final Object INSTANCE_LOCK = new Object();
+    private static volatile WaitlistPromoter instance;
+    private static final int BATCH_SIZE = 256;
+
+    private final ConcurrentLinkedQueue<Promotion> promotions = new ConcurrentLinkedQueue<>();
+    //promotions queued but not yet processed, the worker is scheduled when it leaves 0
+    private final AtomicInteger pending = new AtomicInteger();
+    private final ExecutorService worker = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "waitlist-promoter");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private WaitlistPromoter() {
+    }
+
+    public static WaitlistPromoter getInstance() {
+        if (instance == null) {
+            synchronized (INSTANCE_LOCK) {
+                if (instance == null) {
+                    instance = new WaitlistPromoter();
+                }
+            }
+        }
+        return instance;
+    }
+
+    // called with the course lock held, after course.reserveSeat()
+    void submit(Course course, Student student) {
+        promotions.add(new Promotion(course, student));
+        if (pending.getAndIncrement() == 0) {
+            worker.execute(this::drain);
+        }
+    }
+
+    private void drain() {
+        int processed = 0;
+        Promotion promotion;
+        while (processed < BATCH_SIZE && (promotion = promotions.poll()) != null) {
+            promote(promotion);
+            processed++;
+        }
+        //more queued, or submitted while draining: continue with a fresh batch
+        if (pending.addAndGet(-processed) > 0) {
+            worker.execute(this::drain);
+        }
+    }
+
+    private void promote(Promotion promotion) {
+        Course course = promotion.course;
+        Student student = promotion.student;
+        boolean promoted;
+        synchronized(course.getEnrollmentLock()){
+            synchronized(student.getEnrollmentLock()){
+                course.releaseReservation();
+                boolean enrolled = student.isEnrolledIn(course);
+                //the student may have taken a conflicting course while waiting
+                promoted = !course.isRemoved() && !student.isRemoved() && !enrolled
+                        && Registration.checkEligibility(student, course) == null;
+                if (promoted || enrolled) {
+                    //a retry while the promotion was queued may have put them back on the waitlist
+                    course.removeFromWaitlist(student.getId());
+                }
+                if (promoted) {
+                    course.addStudent(student.getId());
+                    student.enroll(course);
+                    //journaled like a registration, nobody waits for this write
+                    CompletableFuture<Void> write = CourseRegistrationSystem.getInstance()
+                            .journal(EnrollmentRecords.enrollmentChange(EnrollmentRecords.REGISTER, student, course));
+                    if (write != null) {
+                        write.exceptionally(e -> {
+                            System.err.println("enrollment journal write failed: " + e.getMessage());
+                            return null;
+                        });
+                    }
+                }
+            }
+            if (!promoted) {
+                //student got in some other way or cannot take it anymore, the seat goes to the next in line
+                course.reserveForNextWaitlisted(this);
+            }
+        }
+        if (promoted) {
+            RegistrationEvents.getInstance().publish(student.getId(), course.getCode(), RegistrationResult.PROMOTED);
+        }
+    }
+
+    private static final class Promotion {
+        private final Course course;
+        private final Student student;
+
+        Promotion(Course course, Student student) {
+            this.course = course;
+            this.student = student;
+        }
+    }
+}
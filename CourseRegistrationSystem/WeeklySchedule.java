@@ -0,0 +1,68 @@
+package CourseRegistrationSystem;
+
+import java.util.List;
+
+/**
+ * A week as 7 x 48 half-hour bits packed into longs, so schedule conflicts are a
+ * handful of ANDs instead of comparing time slots pairwise.
+ */
+public final class WeeklySchedule {
+    static final int SLOTS_PER_DAY = 48;
+    static final int WORDS = (7 * SLOTS_PER_DAY + 63) / 64;
+    public static final WeeklySchedule EMPTY = new WeeklySchedule(new long[WORDS]);
+
+    private final long[] words;
+
+    private WeeklySchedule(long[] words) {
+        this.words = words;
+    }
+
+    public static WeeklySchedule of(List<TimeSlot> slots) {
+        long[] words = new long[WORDS];
+        for (TimeSlot slot : slots) {
+            int dayOffset = (slot.getDay().getValue() - 1) * SLOTS_PER_DAY;
+            int first = slot.getStart().toSecondOfDay() / 1800;
+            int last = (slot.getEnd().toSecondOfDay() + 1799) / 1800;
+            for (int bit = dayOffset + first; bit < dayOffset + last; bit++) {
+                words[bit >>> 6] |= 1L << bit;
+            }
+        }
+        return new WeeklySchedule(words);
+    }
+
+    public boolean conflictsWith(WeeklySchedule other) {
+        return conflictsWith(other.words);
+    }
+
+    boolean conflictsWith(long[] otherWords) {
+        for (int i = 0; i < WORDS; i++) {
+            if ((words[i] & otherWords[i]) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // the following update a student's mutable schedule words
+
+    void addTo(long[] target) {
+        for (int i = 0; i < WORDS; i++) {
+            target[i] |= words[i];
+        }
+    }
+
+    void removeFrom(long[] target) {
+        for (int i = 0; i < WORDS; i++) {
+            target[i] &= ~words[i];
+        }
+    }
+
+    public boolean isEmpty() {
+        for (long word : words) {
+            if (word != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,11 @@
+package Journal;
+
+/**
+ * Turns journal records into single lines of text and back. The encoded form must not
+ * contain '\n' or '\r', every record is one line of a segment or snapshot file.
+ */
+public interface RecordCodec<T> {
+    String encode(T record);
+
+    T decode(String line);
+}
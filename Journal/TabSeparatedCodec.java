@@ -0,0 +1,70 @@
+package Journal;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Records as arrays of fields: tab separated, with tab, newline, carriage return and
+ * backslash escaped inside fields (readLine also ends a line at a lone '\r').
+ * A null field is written as an empty one.
+ */
+public final class TabSeparatedCodec implements RecordCodec<String[]> {
+    public static final TabSeparatedCodec INSTANCE = new TabSeparatedCodec();
+
+    private TabSeparatedCodec() {
+    }
+
+    @Override
+    public String encode(String[] fields) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < fields.length; i++) {
+            if (i > 0) {
+                sb.append('\t');
+            }
+            sb.append(escape(fields[i]));
+        }
+        return sb.toString();
+    }
+
+    @Override
+    public String[] decode(String line) {
+        return split(line);
+    }
+
+    public static String[] split(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c == '\t') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\\' && i + 1 < line.length()) {
+                char next = line.charAt(++i);
+                field.append(next == 't' ? '\t' : next == 'n' ? '\n' : next == 'r' ? '\r' : next);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields.toArray(new String[0]);
+    }
+
+    public static String escape(String value) {
+        if (value == null) {
+            return "";
+        }
+        StringBuilder sb = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\t': sb.append("\\t"); break;
+                case '\n': sb.append("\\n"); break;
+                case '\r': sb.append("\\r"); break;
+                case '\\': sb.append("\\\\"); break;
+                default: sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,318 @@
+package Journal;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Write-ahead journal with group commit, shared by the systems that persist their state.
+ * It knows nothing about the records; the RecordCodec turns them into lines and back.
+ *
+ * Callers enqueue records and get a future; a single writer thread drains whatever
+ * is queued, writes it with one write + one fsync, then completes all futures of the
+ * batch. The log is split in segments; a snapshot covers every segment before it,
+ * so recovery reads the latest snapshot plus the segments written after it.
+ *
+ * Every line is "crc32<TAB>record" so a torn last line after a crash is detected and ignored.
+ */
+public class WriteAheadJournal<T> implements AutoCloseable {
+    private static final int MAX_BATCH = 4096;
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SNAPSHOT_PREFIX = "snapshot-";
+
+    private final Path directory;
+    private final String name;
+    private final RecordCodec<T> codec;
+    private final BlockingQueue<Entry> queue = new LinkedBlockingQueue<>();
+    private final Thread writerThread;
+    private FileChannel segment;
+    private long segmentId;
+    private volatile boolean closed;
+
+    // name is used for the writer thread and in error messages, e.g. "booking"
+    public WriteAheadJournal(Path directory, String name, RecordCodec<T> codec) throws IOException {
+        this.directory = directory;
+        this.name = name;
+        this.codec = codec;
+        Files.createDirectories(directory);
+        this.segmentId = latestSegmentId() + 1;
+        this.segment = openSegment(segmentId);
+        this.writerThread = new Thread(this::runWriter, name + "-journal-writer");
+        this.writerThread.setDaemon(true);
+        this.writerThread.start();
+    }
+
+    // completes once the record is on disk together with the rest of its batch
+    public CompletableFuture<Void> append(T record) {
+        if (closed) {
+            return CompletableFuture.failedFuture(new IOException("journal is closed"));
+        }
+        //encoded on the caller's thread, a codec failure must not take the writer down
+        Entry entry = new Entry(codec.encode(record));
+        queue.add(entry);
+        if (closed) {
+            //the writer may already be gone and would never see this entry
+            failPending();
+        }
+        return entry.done;
+    }
+
+    /**
+     * Starts a new segment and returns its id. Every record appended before this call is
+     * in an older segment, so a snapshot of the state taken afterwards covers them all.
+     */
+    public long rotate() throws IOException {
+        Entry marker = new Entry(null);
+        queue.add(marker);
+        if (closed) {
+            failPending();
+        }
+        try {
+            marker.done.join();
+        } catch (CompletionException e) {
+            throw new IOException("journal rotation failed", e.getCause());
+        }
+        return marker.segmentId;
+    }
+
+    /**
+     * Writes the snapshot atomically (temp file + rename) and deletes the segments and
+     * snapshots it supersedes.
+     */
+    public void writeSnapshot(long firstSegmentToReplay, List<T> records) throws IOException {
+        Path temp = directory.resolve(SNAPSHOT_PREFIX + firstSegmentToReplay + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            StringBuilder sb = new StringBuilder();
+            for (T record : records) {
+                appendLine(sb, codec.encode(record));
+            }
+            ByteBuffer buffer = ByteBuffer.wrap(sb.toString().getBytes(StandardCharsets.UTF_8));
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+        Files.move(temp, directory.resolve(SNAPSHOT_PREFIX + firstSegmentToReplay + ".dat"), StandardCopyOption.ATOMIC_MOVE);
+
+        for (Path file : listFiles()) {
+            String name = file.getFileName().toString();
+            if (name.startsWith(SEGMENT_PREFIX) && idOf(name) < firstSegmentToReplay) {
+                Files.deleteIfExists(file);
+            } else if (name.startsWith(SNAPSHOT_PREFIX) && name.endsWith(".dat") && idOf(name) < firstSegmentToReplay) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    /**
+     * Feeds the latest snapshot and then the log tail to the consumer, oldest first,
+     * decoded by the codec.
+     */
+    public void recover(Consumer<T> consumer) throws IOException {
+        long snapshotId = -1;
+        for (Path file : listFiles()) {
+            String name = file.getFileName().toString();
+            if (name.startsWith(SNAPSHOT_PREFIX) && name.endsWith(".dat")) {
+                snapshotId = Math.max(snapshotId, idOf(name));
+            }
+        }
+        long firstSegment = 0;
+        if (snapshotId >= 0) {
+            readRecords(directory.resolve(SNAPSHOT_PREFIX + snapshotId + ".dat"), consumer);
+            firstSegment = snapshotId;
+        }
+        List<Long> segmentIds = new ArrayList<>();
+        for (Path file : listFiles()) {
+            String name = file.getFileName().toString();
+            if (name.startsWith(SEGMENT_PREFIX) && idOf(name) >= firstSegment) {
+                segmentIds.add(idOf(name));
+            }
+        }
+        segmentIds.sort(null);
+        for (long id : segmentIds) {
+            readRecords(segmentPath(id), consumer);
+        }
+    }
+
+    // entries still queued are failed, nobody is left waiting on them
+    @Override
+    public void close() {
+        closed = true;
+        writerThread.interrupt();
+        try {
+            writerThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        failPending();
+    }
+
+    private void runWriter() {
+        List<Entry> batch = new ArrayList<>();
+        StringBuilder sb = new StringBuilder();
+        try {
+            while (true) {
+                batch.add(queue.take());
+                queue.drainTo(batch, MAX_BATCH - 1);
+                int start = 0;
+                for (int i = 0; i < batch.size(); i++) {
+                    if (batch.get(i).line == null) {
+                        commit(batch.subList(start, i), sb);
+                        rotateSegment(batch.get(i));
+                        start = i + 1;
+                    }
+                }
+                commit(batch.subList(start, batch.size()), sb);
+                batch.clear();
+            }
+        } catch (InterruptedException e) {
+            //closing
+        } finally {
+            //also reached if the writer dies, later appends then fail instead of hanging
+            closed = true;
+            for (Entry entry : batch) {
+                entry.done.completeExceptionally(new IOException("journal is closed"));
+            }
+            failPending();
+            closeSegment();
+        }
+    }
+
+    private void failPending() {
+        Entry entry;
+        while ((entry = queue.poll()) != null) {
+            entry.done.completeExceptionally(new IOException("journal is closed"));
+        }
+    }
+
+    private void commit(List<Entry> entries, StringBuilder sb) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        sb.setLength(0);
+        for (Entry entry : entries) {
+            appendLine(sb, entry.line);
+        }
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(sb.toString().getBytes(StandardCharsets.UTF_8));
+            while (buffer.hasRemaining()) {
+                segment.write(buffer);
+            }
+            //one fsync for the whole batch is the point of group commit
+            segment.force(false);
+            for (Entry entry : entries) {
+                entry.done.complete(null);
+            }
+        } catch (IOException e) {
+            for (Entry entry : entries) {
+                entry.done.completeExceptionally(e);
+            }
+        }
+    }
+
+    private void rotateSegment(Entry marker) {
+        try {
+            segment.close();
+            segmentId++;
+            segment = openSegment(segmentId);
+            marker.segmentId = segmentId;
+            marker.done.complete(null);
+        } catch (IOException e) {
+            marker.done.completeExceptionally(e);
+        }
+    }
+
+    private void closeSegment() {
+        try {
+            segment.close();
+        } catch (IOException e) {
+            System.err.println("Failed to close " + name + " journal: " + e.getMessage());
+        }
+    }
+
+    private FileChannel openSegment(long id) throws IOException {
+        return FileChannel.open(segmentPath(id), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    private Path segmentPath(long id) {
+        return directory.resolve(String.format("%s%012d.log", SEGMENT_PREFIX, id));
+    }
+
+    private long latestSegmentId() throws IOException {
+        long latest = 0;
+        for (Path file : listFiles()) {
+            String name = file.getFileName().toString();
+            if (name.startsWith(SEGMENT_PREFIX) || (name.startsWith(SNAPSHOT_PREFIX) && name.endsWith(".dat"))) {
+                latest = Math.max(latest, idOf(name));
+            }
+        }
+        return latest;
+    }
+
+    private List<Path> listFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.collect(Collectors.toList());
+        }
+    }
+
+    private static long idOf(String fileName) {
+        int start = fileName.indexOf('-') + 1;
+        int end = fileName.indexOf('.');
+        return Long.parseLong(fileName.substring(start, end));
+    }
+
+    private void readRecords(Path file, Consumer<T> consumer) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                int tab = line.indexOf('\t');
+                if (tab < 0) {
+                    return;
+                }
+                String record = line.substring(tab + 1);
+                if (!Long.toHexString(crc(record)).equals(line.substring(0, tab))) {
+                    //torn write at the tail of the log, nothing after it was acknowledged
+                    return;
+                }
+                consumer.accept(codec.decode(record));
+            }
+        }
+    }
+
+    private static void appendLine(StringBuilder sb, String record) {
+        sb.append(Long.toHexString(crc(record))).append('\t').append(record).append('\n');
+    }
+
+    private static long crc(String record) {
+        CRC32 crc = new CRC32();
+        crc.update(record.getBytes(StandardCharsets.UTF_8));
+        return crc.getValue();
+    }
+
+    private static final class Entry {
+        //null for a rotation marker
+        final String line;
+        final CompletableFuture<Void> done = new CompletableFuture<>();
+        long segmentId;
+
+        Entry(String line) {
+            this.line = line;
+        }
+    }
+}
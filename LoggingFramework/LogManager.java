@@ -0,0 +1,133 @@
+package LoggingFramework;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import LoggingFramework.appender.LogAppender;
+import LoggingFramework.config.AppenderDefinition;
+import LoggingFramework.config.LoggingConfiguration;
+
+/**
+ * Owns the named logger tree ("a.b.c" is a child of "a.b") and applies
+ * configurations to it at runtime without recreating the loggers.
+ */
+public class LogManager {
+    private static volatile LogManager instance;
+
+    private final Map<String, Logger> loggers = new ConcurrentHashMap<>();
+    private final Object configLock = new Object();
+    private LoggingConfiguration configuration;
+    private Map<AppenderDefinition, LogAppender> liveAppenders = new HashMap<>();
+    private Map<String, LogAppender> appendersByName = new HashMap<>();
+
+    public LogManager() {
+        applyConfiguration(LoggingConfiguration.defaultConfiguration());
+    }
+
+    public static LogManager getInstance() {
+        if (instance == null) {
+            synchronized (LogManager.class) {
+                if (instance == null) {
+                    instance = new LogManager();
+                }
+            }
+        }
+        return instance;
+    }
+
+    public Logger getRootLogger() {
+        return getLogger("");
+    }
+
+    public Logger getLogger(String name) {
+        Logger logger = loggers.get(name);
+        if (logger != null) {
+            return logger;
+        }
+        //created under the config lock so a concurrent reload cannot miss it
+        synchronized (configLock) {
+            return loggers.computeIfAbsent(name, n -> new Logger(n, resolve(n)));
+        }
+    }
+
+    /**
+     * Swaps level and appenders on every live logger. Appenders whose definition did not
+     * change are reused; removed ones are closed only after all loggers stopped using them.
+     * That drain runs after the config lock is released, and on a background thread when
+     * the reload is triggered from inside an appender.
+     */
+    public void applyConfiguration(LoggingConfiguration newConfiguration) {
+        List<LoggerConfig> previousConfigs = new ArrayList<>();
+        List<LogAppender> toClose = new ArrayList<>();
+        synchronized (configLock) {
+            Map<AppenderDefinition, LogAppender> newLiveAppenders = new HashMap<>();
+            Map<String, LogAppender> newAppendersByName = new HashMap<>();
+            List<LogAppender> created = new ArrayList<>();
+            try {
+                for (Map.Entry<String, AppenderDefinition> entry : newConfiguration.getAppenders().entrySet()) {
+                    AppenderDefinition definition = entry.getValue();
+                    LogAppender appender = newLiveAppenders.get(definition);
+                    if (appender == null) {
+                        appender = liveAppenders.get(definition);
+                    }
+                    if (appender == null) {
+                        appender = definition.create();
+                        created.add(appender);
+                    }
+                    newLiveAppenders.put(definition, appender);
+                    newAppendersByName.put(entry.getKey(), appender);
+                }
+            } catch (RuntimeException e) {
+                //the old configuration stays in place, so nothing but the new appenders to undo
+                for (LogAppender appender : created) {
+                    appender.close();
+                }
+                throw e;
+            }
+
+            Map<AppenderDefinition, LogAppender> retired = liveAppenders;
+            configuration = newConfiguration;
+            liveAppenders = newLiveAppenders;
+            appendersByName = newAppendersByName;
+
+            for (Logger logger : loggers.values()) {
+                previousConfigs.add(logger.swapConfig(resolve(logger.getName())));
+            }
+
+            for (Map.Entry<AppenderDefinition, LogAppender> entry : retired.entrySet()) {
+                if (newLiveAppenders.get(entry.getKey()) != entry.getValue()) {
+                    toClose.add(entry.getValue());
+                }
+            }
+        }
+        if (toClose.isEmpty()) {
+            return;
+        }
+        Runnable drainAndClose = () -> {
+            for (LoggerConfig previous : previousConfigs) {
+                previous.awaitQuiescence();
+            }
+            for (LogAppender appender : toClose) {
+                appender.close();
+            }
+        };
+        if (Logger.isLoggingOnCurrentThread()) {
+            Thread closer = new Thread(drainAndClose, "log-appender-closer");
+            closer.setDaemon(true);
+            closer.start();
+        } else {
+            drainAndClose.run();
+        }
+    }
+
+    private LoggerConfig resolve(String loggerName) {
+        List<LogAppender> appenders = new ArrayList<>();
+        for (String appenderName : configuration.resolveAppenderNames(loggerName)) {
+            appenders.add(appendersByName.get(appenderName));
+        }
+        return new LoggerConfig(configuration.resolveLevel(loggerName), appenders);
+    }
+}
@@ -1,16 +1,25 @@
 package LoggingFramework;
 
+import LoggingFramework.context.ContextMap;
+import LoggingFramework.context.MDC;
+
 public class LogMessage {
     private final LogLevel logLevel;
     private final String message;
     private final long timestamp;
     private final String threadName;
+    private final ContextMap context;
 
     public LogMessage(LogLevel level, String message, long time, String thread){
+        this(level, message, time, thread, MDC.getContext());
+    }
+
+    public LogMessage(LogLevel level, String message, long time, String thread, ContextMap context){
         this.logLevel = level;
         this.message = message;
         this.timestamp = time;
         this.threadName = thread;
+        this.context = context == null ? ContextMap.EMPTY : context;
     }
 
     public LogLevel getLogLevel() {
@@ -28,4 +37,8 @@ public class LogMessage {
     public String getThreadName() {
         return threadName;
     }
+
+    public ContextMap getContext() {
+        return context;
+    }
 }
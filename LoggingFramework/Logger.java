@@ -1,9 +1,127 @@
 package LoggingFramework;
 
+import java.util.ArrayList;
+import java.util.List;
+
+import LoggingFramework.appender.ConsoleAppender;
+import LoggingFramework.appender.LogAppender;
+import LoggingFramework.formatter.SimpleFormatter;
+
 public class Logger{
-    
+    //depth of log calls on this thread, so a reconfigure from inside an appender does not wait on itself
+    private static final ThreadLocal<int[]> LOGGING_DEPTH = ThreadLocal.withInitial(() -> new int[1]);
+
+    private final String name;
+    private volatile LoggerConfig config;
+
     public Logger(){
+        this(LogLevel.INFO, List.of(new ConsoleAppender(new SimpleFormatter())));
+    }
+
+    public Logger(LogLevel level, List<LogAppender> appenders){
+        this("", new LoggerConfig(level, appenders));
+    }
+
+    Logger(String name, LoggerConfig config){
+        this.name = name;
+        this.config = config;
+    }
+
+    public boolean isEnabled(LogLevel messageLevel){
+        return messageLevel.isSevereAs(config.getLevel());
+    }
+
+    public void log(LogLevel messageLevel, String message){
+        LoggerConfig current = config;
+        //cheap level check first so disabled calls do not allocate a LogMessage
+        if(!messageLevel.isSevereAs(current.getLevel())){
+            return;
+        }
+        LogMessage logMessage = new LogMessage(messageLevel, message, System.currentTimeMillis(), Thread.currentThread().getName());
+        //register on the config before using its appenders; if it was swapped meanwhile, move to the new one
+        current.enter();
+        while(current != config){
+            current.exit();
+            current = config;
+            current.enter();
+        }
+        int[] depth = LOGGING_DEPTH.get();
+        depth[0]++;
+        try{
+            for(LogAppender appender: current.getAppenders()){
+                appender.append(logMessage);
+            }
+        }
+        finally{
+            depth[0]--;
+            current.exit();
+        }
+    }
+
+    public void debug(String message){
+        log(LogLevel.DEBUG, message);
+    }
+
+    public void info(String message){
+        log(LogLevel.INFO, message);
+    }
+
+    public void warning(String message){
+        log(LogLevel.WARNING, message);
+    }
+
+    public void error(String message){
+        log(LogLevel.ERROR, message);
+    }
+
+    public void fatal(String message){
+        log(LogLevel.FATAL, message);
+    }
+
+    public String getName(){
+        return name;
+    }
+
+    public LogLevel getLevel(){
+        return config.getLevel();
+    }
 
+    public LoggerConfig getConfig(){
+        return config;
+    }
+
+    //neither change retires an appender, so there is nothing to drain
+    public synchronized void setLevel(LogLevel level){
+        config = config.withLevel(level);
+    }
+
+    public synchronized void addAppender(LogAppender appender){
+        List<LogAppender> appenders = new ArrayList<>(config.getAppenders());
+        appenders.add(appender);
+        config = config.withAppenders(appenders);
+    }
+
+    /**
+     * Atomically replaces level and appenders. Returns once every call that was still
+     * using the previous config has finished, so its appenders can be closed safely.
+     * The wait happens outside the monitor; called from inside an appender it returns
+     * without waiting, because the calling thread itself still uses the previous config.
+     */
+    public LoggerConfig reconfigure(LoggerConfig newConfig){
+        LoggerConfig previous = swapConfig(newConfig);
+        if(!isLoggingOnCurrentThread()){
+            previous.awaitQuiescence();
+        }
+        return previous;
+    }
+
+    synchronized LoggerConfig swapConfig(LoggerConfig newConfig){
+        LoggerConfig previous = config;
+        config = newConfig;
+        return previous;
+    }
 
+    static boolean isLoggingOnCurrentThread(){
+        return LOGGING_DEPTH.get()[0] > 0;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,71 @@
+package LoggingFramework;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import LoggingFramework.appender.LogAppender;
+
+/**
+ * Immutable level + appenders of a Logger. Reconfiguring a logger publishes a new
+ * LoggerConfig instead of mutating this one, so the logging hot path never takes a lock.
+ * Disabled calls only do a volatile read; enabled calls also increment and decrement
+ * inFlight, one counter shared by every thread logging through this config, and
+ * Logger does one ThreadLocal lookup to detect reentrant reconfiguration.
+ *
+ * inFlight counts log calls still appending through this config. After a swap the
+ * old config is drained before its appenders can be closed, so no event is lost.
+ */
+public final class LoggerConfig {
+    private static final int MAX_SPINS = 100;
+    private static final long MIN_PARK_NANOS = 10_000;
+    private static final long MAX_PARK_NANOS = 1_000_000;
+
+    private final LogLevel level;
+    private final List<LogAppender> appenders;
+    private final AtomicLong inFlight = new AtomicLong();
+
+    public LoggerConfig(LogLevel level, List<LogAppender> appenders) {
+        this.level = level;
+        this.appenders = List.copyOf(appenders);
+    }
+
+    public LogLevel getLevel() {
+        return level;
+    }
+
+    public List<LogAppender> getAppenders() {
+        return appenders;
+    }
+
+    public LoggerConfig withLevel(LogLevel newLevel) {
+        return new LoggerConfig(newLevel, appenders);
+    }
+
+    public LoggerConfig withAppenders(List<LogAppender> newAppenders) {
+        return new LoggerConfig(level, newAppenders);
+    }
+
+    void enter() {
+        inFlight.incrementAndGet();
+    }
+
+    void exit() {
+        inFlight.decrementAndGet();
+    }
+
+    // waits until every call that entered before the swap has finished appending;
+    // a single counter so a zero read is exact, unlike summing LongAdder cells.
+    // Appends are short, so it spins briefly and then parks with a growing, capped pause.
+    void awaitQuiescence() {
+        long parkNanos = MIN_PARK_NANOS;
+        for (int spins = 0; inFlight.get() != 0; spins++) {
+            if (spins < MAX_SPINS) {
+                Thread.onSpinWait();
+            } else {
+                LockSupport.parkNanos(parkNanos);
+                parkNanos = Math.min(parkNanos * 2, MAX_PARK_NANOS);
+            }
+        }
+    }
+}
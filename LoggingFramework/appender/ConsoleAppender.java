@@ -1,15 +1,23 @@
 package LoggingFramework.appender;
 
+import java.io.PrintStream;
+
 import LoggingFramework.LogMessage;
 import LoggingFramework.formatter.LogFormatter;
 
 public class ConsoleAppender implements LogAppender{
     private final LogFormatter formatter;
+    private final PrintStream out;
 
     public ConsoleAppender(LogFormatter formatter){
+        this(formatter, System.out);
+    }
+
+    public ConsoleAppender(LogFormatter formatter, PrintStream out){
         this.formatter = formatter;
+        this.out = out;
     }
     public void append(LogMessage message){
-        System.out.println(formatter.format(message));
+        out.println(formatter.format(message));
     }
 }
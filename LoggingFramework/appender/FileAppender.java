@@ -30,5 +30,15 @@ public class FileAppender implements LogAppender {
         }
     }
 
+    @Override
+    public synchronized void close(){
+        try {
+            writer.close();
+        }
+        catch (IOException e) {
+            System.out.println("Failed to close log file, exception: " + e.getMessage());
+        }
+    }
+
 }
 
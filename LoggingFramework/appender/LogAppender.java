@@ -4,4 +4,8 @@ import LoggingFramework.LogMessage;
 
 public interface LogAppender {
     void append(LogMessage message);
+
+    // called once the appender has been swapped out and no logger uses it anymore
+    default void close() {
+    }
 }
@@ -0,0 +1,64 @@
+package LoggingFramework.config;
+
+import java.util.Objects;
+
+import LoggingFramework.appender.ConsoleAppender;
+import LoggingFramework.appender.FileAppender;
+import LoggingFramework.appender.LogAppender;
+import LoggingFramework.formatter.LogFormatter;
+import LoggingFramework.formatter.SimpleFormatter;
+
+/**
+ * Declarative description of an appender read from the config file.
+ * Two equal definitions describe the same appender, which lets a reload keep
+ * the already open appender instead of reopening files.
+ */
+public final class AppenderDefinition {
+    private final String type;
+    private final String path;
+    private final String formatter;
+
+    public AppenderDefinition(String type, String path, String formatter) {
+        this.type = type;
+        this.path = path;
+        this.formatter = formatter;
+    }
+
+    public LogAppender create() {
+        switch (type) {
+            case "console":
+                return new ConsoleAppender(createFormatter());
+            case "file":
+                if (path == null) {
+                    throw new IllegalArgumentException("file appender requires a path");
+                }
+                return new FileAppender(path, createFormatter());
+            default:
+                throw new IllegalArgumentException("Unknown appender type: " + type);
+        }
+    }
+
+    private LogFormatter createFormatter() {
+        if (formatter == null || formatter.equals("simple")) {
+            return new SimpleFormatter();
+        }
+        throw new IllegalArgumentException("Unknown formatter: " + formatter);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof AppenderDefinition)) {
+            return false;
+        }
+        AppenderDefinition other = (AppenderDefinition) o;
+        return type.equals(other.type) && Objects.equals(path, other.path) && Objects.equals(formatter, other.formatter);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(type, path, formatter);
+    }
+}
@@ -0,0 +1,76 @@
+package LoggingFramework.config;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+
+import LoggingFramework.LogManager;
+
+/**
+ * Watches the logging config file and applies it to the live logger tree on change.
+ * A file that fails to parse is reported and the running configuration is kept.
+ */
+public class ConfigWatcher implements AutoCloseable {
+    private final Path configFile;
+    private final LogManager logManager;
+    private final WatchService watchService;
+    private final Thread watcherThread;
+
+    public ConfigWatcher(Path configFile, LogManager logManager) throws IOException {
+        this.configFile = configFile.toAbsolutePath();
+        this.logManager = logManager;
+        this.watchService = FileSystems.getDefault().newWatchService();
+        //editors often save by writing a temp file and renaming it, so watch creates as well
+        this.configFile.getParent().register(watchService,
+                StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_CREATE);
+        this.watcherThread = new Thread(this::watch, "logging-config-watcher");
+        this.watcherThread.setDaemon(true);
+    }
+
+    public void start() {
+        reload();
+        watcherThread.start();
+    }
+
+    private void watch() {
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                boolean changed = false;
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    Object context = event.context();
+                    if (context instanceof Path && configFile.getFileName().equals(context)) {
+                        changed = true;
+                    }
+                }
+                if (changed) {
+                    reload();
+                }
+                if (!key.reset()) {
+                    return;
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void reload() {
+        try {
+            logManager.applyConfiguration(LoggingConfiguration.load(configFile));
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("Failed to reload logging config " + configFile + ": " + e.getMessage());
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        watchService.close();
+        watcherThread.interrupt();
+    }
+}
@@ -0,0 +1,146 @@
+package LoggingFramework.config;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import LoggingFramework.LogLevel;
+
+/**
+ * Parsed logging configuration. Properties format:
+ *
+ *   root.level=INFO
+ *   root.appenders=console,app
+ *   appender.console.type=console
+ *   appender.app.type=file
+ *   appender.app.path=logs/app.log
+ *   appender.app.formatter=simple
+ *   logger.PubSubSystem.level=DEBUG
+ *   logger.PubSubSystem.appenders=app
+ *
+ * A logger without its own entry inherits level/appenders from the closest
+ * dotted ancestor, and finally from root.
+ */
+public final class LoggingConfiguration {
+    private static final String ROOT = "";
+
+    private final Map<String, LogLevel> levels;
+    private final Map<String, List<String>> appenderRefs;
+    private final Map<String, AppenderDefinition> appenders;
+
+    private LoggingConfiguration(Map<String, LogLevel> levels, Map<String, List<String>> appenderRefs,
+                                 Map<String, AppenderDefinition> appenders) {
+        this.levels = levels;
+        this.appenderRefs = appenderRefs;
+        this.appenders = appenders;
+    }
+
+    public static LoggingConfiguration defaultConfiguration() {
+        Map<String, LogLevel> levels = new HashMap<>();
+        levels.put(ROOT, LogLevel.INFO);
+        Map<String, List<String>> refs = new HashMap<>();
+        refs.put(ROOT, List.of("console"));
+        Map<String, AppenderDefinition> appenders = new HashMap<>();
+        appenders.put("console", new AppenderDefinition("console", null, "simple"));
+        return new LoggingConfiguration(levels, refs, appenders);
+    }
+
+    public static LoggingConfiguration load(Path file) throws IOException {
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(file)) {
+            properties.load(reader);
+        }
+        return parse(properties);
+    }
+
+    public static LoggingConfiguration parse(Properties properties) {
+        Map<String, LogLevel> levels = new HashMap<>();
+        Map<String, List<String>> refs = new HashMap<>();
+        Map<String, String[]> rawAppenders = new HashMap<>();
+
+        for (String key : properties.stringPropertyNames()) {
+            String value = properties.getProperty(key).trim();
+            if (key.equals("root.level")) {
+                levels.put(ROOT, LogLevel.valueOf(value.toUpperCase()));
+            } else if (key.equals("root.appenders")) {
+                refs.put(ROOT, splitNames(value));
+            } else if (key.startsWith("logger.") && key.endsWith(".level")) {
+                levels.put(key.substring("logger.".length(), key.length() - ".level".length()), LogLevel.valueOf(value.toUpperCase()));
+            } else if (key.startsWith("logger.") && key.endsWith(".appenders")) {
+                refs.put(key.substring("logger.".length(), key.length() - ".appenders".length()), splitNames(value));
+            } else if (key.startsWith("appender.")) {
+                int dot = key.lastIndexOf('.');
+                String name = key.substring("appender.".length(), dot);
+                String attribute = key.substring(dot + 1);
+                String[] definition = rawAppenders.computeIfAbsent(name, n -> new String[3]);
+                switch (attribute) {
+                    case "type": definition[0] = value; break;
+                    case "path": definition[1] = value; break;
+                    case "formatter": definition[2] = value; break;
+                    default: throw new IllegalArgumentException("Unknown appender attribute: " + key);
+                }
+            }
+        }
+
+        Map<String, AppenderDefinition> appenders = new HashMap<>();
+        for (Map.Entry<String, String[]> entry : rawAppenders.entrySet()) {
+            String[] definition = entry.getValue();
+            if (definition[0] == null) {
+                throw new IllegalArgumentException("Appender " + entry.getKey() + " has no type");
+            }
+            appenders.put(entry.getKey(), new AppenderDefinition(definition[0], definition[1], definition[2]));
+        }
+        for (List<String> names : refs.values()) {
+            for (String name : names) {
+                if (!appenders.containsKey(name)) {
+                    throw new IllegalArgumentException("Undefined appender: " + name);
+                }
+            }
+        }
+        levels.putIfAbsent(ROOT, LogLevel.INFO);
+        refs.putIfAbsent(ROOT, Collections.emptyList());
+        return new LoggingConfiguration(levels, refs, appenders);
+    }
+
+    private static List<String> splitNames(String value) {
+        List<String> names = new ArrayList<>();
+        for (String name : value.split(",")) {
+            if (!name.isBlank()) {
+                names.add(name.trim());
+            }
+        }
+        return names;
+    }
+
+    public Map<String, AppenderDefinition> getAppenders() {
+        return appenders;
+    }
+
+    public LogLevel resolveLevel(String loggerName) {
+        return levels.get(closestConfigured(loggerName, levels));
+    }
+
+    public List<String> resolveAppenderNames(String loggerName) {
+        return appenderRefs.get(closestConfigured(loggerName, appenderRefs));
+    }
+
+    // walks "a.b.c" -> "a.b" -> "a" -> root until a configured name is found
+    private static String closestConfigured(String loggerName, Map<String, ?> configured) {
+        String name = loggerName;
+        while (!name.isEmpty()) {
+            if (configured.containsKey(name)) {
+                return name;
+            }
+            int dot = name.lastIndexOf('.');
+            name = dot < 0 ? ROOT : name.substring(0, dot);
+        }
+        return ROOT;
+    }
+}
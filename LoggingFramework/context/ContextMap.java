@@ -0,0 +1,103 @@
+package LoggingFramework.context;
+
+import java.util.Arrays;
+
+/**
+ * Small immutable key/value map backing the MDC.
+ * Every put/remove returns a new instance (copy-on-write), so a LogMessage
+ * can keep a reference to it without copying.
+ */
+public final class ContextMap {
+    public static final ContextMap EMPTY = new ContextMap(new String[0], new String[0]);
+
+    private final String[] keys;
+    private final String[] values;
+
+    private ContextMap(String[] keys, String[] values) {
+        this.keys = keys;
+        this.values = values;
+    }
+
+    public String get(String key) {
+        int index = indexOf(key);
+        return index < 0 ? null : values[index];
+    }
+
+    public ContextMap put(String key, String value) {
+        if (key == null) {
+            throw new IllegalArgumentException("MDC key must not be null");
+        }
+        if (value == null) {
+            return remove(key);
+        }
+        int index = indexOf(key);
+        if (index >= 0) {
+            if (value.equals(values[index])) {
+                return this;
+            }
+            String[] newValues = values.clone();
+            newValues[index] = value;
+            return new ContextMap(keys, newValues);
+        }
+        String[] newKeys = Arrays.copyOf(keys, keys.length + 1);
+        String[] newValues = Arrays.copyOf(values, values.length + 1);
+        newKeys[keys.length] = key;
+        newValues[values.length] = value;
+        return new ContextMap(newKeys, newValues);
+    }
+
+    public ContextMap remove(String key) {
+        int index = indexOf(key);
+        if (index < 0) {
+            return this;
+        }
+        if (keys.length == 1) {
+            return EMPTY;
+        }
+        String[] newKeys = new String[keys.length - 1];
+        String[] newValues = new String[values.length - 1];
+        System.arraycopy(keys, 0, newKeys, 0, index);
+        System.arraycopy(values, 0, newValues, 0, index);
+        System.arraycopy(keys, index + 1, newKeys, index, keys.length - index - 1);
+        System.arraycopy(values, index + 1, newValues, index, values.length - index - 1);
+        return new ContextMap(newKeys, newValues);
+    }
+
+    public int size() {
+        return keys.length;
+    }
+
+    public boolean isEmpty() {
+        return keys.length == 0;
+    }
+
+    public String keyAt(int index) {
+        return keys[index];
+    }
+
+    public String valueAt(int index) {
+        return values[index];
+    }
+
+    // linear scan is faster than hashing for the handful of keys an MDC usually holds
+    private int indexOf(String key) {
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i].equals(key)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("{");
+        for (int i = 0; i < keys.length; i++) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            sb.append(keys[i]).append('=').append(values[i]);
+        }
+        return sb.append('}').toString();
+    }
+}
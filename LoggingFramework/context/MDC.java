@@ -0,0 +1,79 @@
+package LoggingFramework.context;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Mapped Diagnostic Context - per thread key/value pairs (request id, user id...)
+ * that are attached to every LogMessage created on that thread.
+ *
+ * Pool threads are reused, so the context is not inherited from the parent thread.
+ * Instead tasks are wrapped at submit time and carry the submitter's context with them.
+ */
+public final class MDC {
+    private static final ThreadLocal<ContextMap> CONTEXT = ThreadLocal.withInitial(() -> ContextMap.EMPTY);
+
+    private MDC() {
+    }
+
+    public static void put(String key, String value) {
+        CONTEXT.set(CONTEXT.get().put(key, value));
+    }
+
+    public static String get(String key) {
+        return CONTEXT.get().get(key);
+    }
+
+    public static void remove(String key) {
+        CONTEXT.set(CONTEXT.get().remove(key));
+    }
+
+    public static void clear() {
+        CONTEXT.set(ContextMap.EMPTY);
+    }
+
+    // returns the current immutable map, no copy is made
+    public static ContextMap getContext() {
+        return CONTEXT.get();
+    }
+
+    public static void setContext(ContextMap context) {
+        CONTEXT.set(context == null ? ContextMap.EMPTY : context);
+    }
+
+    public static Runnable wrap(Runnable task) {
+        ContextMap captured = CONTEXT.get();
+        return () -> {
+            ContextMap previous = CONTEXT.get();
+            CONTEXT.set(captured);
+            try {
+                task.run();
+            } finally {
+                CONTEXT.set(previous);
+            }
+        };
+    }
+
+    public static <T> Callable<T> wrap(Callable<T> task) {
+        ContextMap captured = CONTEXT.get();
+        return () -> {
+            ContextMap previous = CONTEXT.get();
+            CONTEXT.set(captured);
+            try {
+                return task.call();
+            } finally {
+                CONTEXT.set(previous);
+            }
+        };
+    }
+
+    // works for any executor, including thread-per-task (virtual thread) executors
+    public static Executor wrap(Executor executor) {
+        return task -> executor.execute(wrap(task));
+    }
+
+    public static ExecutorService wrap(ExecutorService executor) {
+        return new ContextPropagatingExecutorService(executor);
+    }
+}
@@ -1,14 +1,24 @@
 package LoggingFramework.formatter;
 
 import LoggingFramework.LogMessage;
+import LoggingFramework.context.ContextMap;
 
 public class SimpleFormatter implements LogFormatter {
     @Override
     public String format(LogMessage message){
-        return String.format("[%s] [%s] [%s]: %s",
+        ContextMap context = message.getContext();
+        if (context.isEmpty()) {
+            return String.format("[%s] [%s] [%s]: %s",
+                    message.getTimestamp(),
+                    message.getLogLevel(),
+                    message.getThreadName(),
+                    message.getMessage());
+        }
+        return String.format("[%s] [%s] [%s] %s: %s",
                 message.getTimestamp(),
                 message.getLogLevel(),
                 message.getThreadName(),
+                context,
                 message.getMessage());
     }
 }
@@ -0,0 +1,26 @@
+package MovieTicketBookingSystem;
+
+import java.util.List;
+
+import MovieTicketBookingSystem.booking.Booking;
+import MovieTicketBookingSystem.seat.Seat;
+import MovieTicketBookingSystem.seat.SeatType;
+
+/**
+ * Booking operations shared by a single MovieTicketBookingSystem, a shard router
+ * and remote shards, so callers do not care where a show lives.
+ */
+public interface BookingEngine {
+    void addShow(Show show);
+
+    Booking bookTickets(User user, Show show, List<Seat> selectedSeats);
+
+    Booking bookBestAvailable(User user, Show show, int count, SeatType seatType);
+
+    void confirmBooking(String bookingId);
+
+    void cancelBooking(String bookingId);
+
+    // node id minted into the ids of bookings made by this engine, see BookingIdGenerator.nodeOf
+    int getNodeId();
+}
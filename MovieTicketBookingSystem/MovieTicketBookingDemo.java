@@ -27,8 +27,13 @@ public class MovieTicketBookingDemo {
         // Add shows
         Show show1 = new Show("S1", movie1, theater1, LocalDateTime.now(), LocalDateTime.now().plusMinutes(movie1.getDurationInMinutes()), createSeats(10, 10));
         Show show2 = new Show("S2", movie2, theater2, LocalDateTime.now(), LocalDateTime.now().plusMinutes(movie2.getDurationInMinutes()), createSeats(8, 8));
-        bookingSystem.addShow(show1);
-        bookingSystem.addShow(show2);
+        try {
+            bookingSystem.addShow(show1);
+            bookingSystem.addShow(show2);
+        } catch (IllegalArgumentException e) {
+            System.out.println("Could not add show: " + e.getMessage());
+            return;
+        }
 
         // Book tickets
         User user = new User("U1", "John Doe", "john@example.com");
@@ -1,41 +1,105 @@
 package MovieTicketBookingSystem;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 
+import Journal.TabSeparatedCodec;
+import Journal.WriteAheadJournal;
+import MovieTicketBookingSystem.admission.AdmissionQueue;
+import MovieTicketBookingSystem.admission.QueueToken;
+import MovieTicketBookingSystem.admission.Waitlist;
 import MovieTicketBookingSystem.booking.Booking;
+import MovieTicketBookingSystem.booking.BookingIdGenerator;
+import MovieTicketBookingSystem.booking.BookingPage;
 import MovieTicketBookingSystem.booking.BookingStatus;
+import MovieTicketBookingSystem.booking.UserBookingIndex;
+import MovieTicketBookingSystem.hold.HashedTimerWheel;
+import MovieTicketBookingSystem.journal.JournalRecords;
+import MovieTicketBookingSystem.schedule.WeeklyScheduleGenerator;
+import MovieTicketBookingSystem.search.ShowCatalog;
 import MovieTicketBookingSystem.seat.*;
 
-public class MovieTicketBookingSystem {
+public class MovieTicketBookingSystem implements BookingEngine {
     private static MovieTicketBookingSystem instance;
     private final List<Movie> movies;
     private final List<Theater> theaters;
     private final Map<String, Show> shows;
-    private final Map<String, Booking> bookings;
+    private final Map<Long, Booking> bookings;
+    private final UserBookingIndex userBookings;
+    private final int nodeId;
+    private final BookingIdGenerator bookingIdGenerator;
+    private final ShowCatalog showCatalog;
+    private final Map<String, AdmissionQueue> admissionQueues;
+    private final Map<String, Waitlist> waitlists;
 
-    private static final String BOOKING_ID_PREFIX = "BKG";
-    private static final AtomicLong bookingCounter = new AtomicLong(0);
+    //node ids for engines created with newInstance(), the shared instance is node 0
+    private static final AtomicInteger nextNodeId = new AtomicInteger(1);
+    private static final Duration DEFAULT_HOLD_DURATION = Duration.ofMinutes(10);
+    private static final long DEFAULT_ADMISSION_BURST = 1000;
+    private static final long DEFAULT_ADMISSIONS_PER_SECOND = 200;
+
+    //one wheel expires every pending hold; 100ms ticks x 512 buckets cover ~51s per round
+    private final HashedTimerWheel holdTimer = new HashedTimerWheel(100, TimeUnit.MILLISECONDS, 512);
+    private volatile Duration holdDuration = DEFAULT_HOLD_DURATION;
+
+    //optional write-ahead journal, null until enableJournal is called
+    private volatile WriteAheadJournal<String[]> journal;
+    private ScheduledExecutorService snapshotScheduler;
+
+    //hands released seats to waitlisted users off the cancel/expiry thread
+    private final ExecutorService waitlistExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "waitlist-offers");
+        thread.setDaemon(true);
+        return thread;
+    });
 
     //keeping constructor private for singleton pattern
-    private MovieTicketBookingSystem() {
-        movies = new ArrayList<>();
-        theaters = new ArrayList<>();
+    private MovieTicketBookingSystem(int nodeId) {
+        this.nodeId = nodeId;
+        bookingIdGenerator = new BookingIdGenerator(nodeId);
+        movies = new CopyOnWriteArrayList<>();
+        theaters = new CopyOnWriteArrayList<>();
         shows = new ConcurrentHashMap<>();
         bookings = new ConcurrentHashMap<>();
+        userBookings = new UserBookingIndex();
+        showCatalog = new ShowCatalog();
+        admissionQueues = new ConcurrentHashMap<>();
+        waitlists = new ConcurrentHashMap<>();
     }
 
     public static synchronized MovieTicketBookingSystem getInstance(){
         if(instance == null){
-            instance = new MovieTicketBookingSystem();
+            instance = new MovieTicketBookingSystem(0);
         }
 
         return instance;
     }
 
+    // independent engine, e.g. one per shard; most callers want the shared getInstance()
+    public static MovieTicketBookingSystem newInstance(){
+        return newInstance(nextNodeId.getAndIncrement());
+    }
+
+    // engines in different JVMs need distinct node ids to mint distinct booking ids
+    public static MovieTicketBookingSystem newInstance(int nodeId){
+        return new MovieTicketBookingSystem(nodeId);
+    }
+
      public void addMovie(Movie movie) {
         movies.add(movie);
     }
@@ -44,8 +108,27 @@ public class MovieTicketBookingSystem {
         theaters.add(theater);
     }
 
+    // adding a show twice is a no-op; throws IllegalArgumentException if it does not fit on its screen
+    @Override
     public void addShow(Show show) {
-        shows.put(show.getId(), show);
+        if (shows.putIfAbsent(show.getId(), show) != null) {
+            return;
+        }
+        if (!show.getTheater().addShow(show)) {
+            shows.remove(show.getId());
+            throw new IllegalArgumentException("Show " + show.getId() + " does not fit on screen " + show.getScreenId()
+                    + " of theater " + show.getTheater().getId());
+        }
+        showCatalog.add(show);
+    }
+
+    // generates a week of shows for every theater's screens and registers them
+    public List<Show> scheduleWeek(WeeklyScheduleGenerator generator, LocalDate weekStart) {
+        List<Show> generated = generator.generate(theaters, movies, weekStart);
+        for (Show show : generated) {
+            addShow(show);
+        }
+        return generated;
     }
 
     public List<Movie> getMovies() {
@@ -60,74 +143,375 @@ public class MovieTicketBookingSystem {
         return shows.get(showId);
     }
 
-    public synchronized Booking bookTickets(User user, Show show, List<Seat> selectedSeats){
-        if(areSeatsAvailable(show, selectedSeats)){
-            markSeatsAsBooked(show, selectedSeats);
-            double totalPrice = calculateTotalPrice(selectedSeats);
-            String bookingId = generateBookingId();
-            Booking booking = new Booking(bookingId, user, show, selectedSeats, totalPrice, BookingStatus.PENDING);
-            bookings.put(bookingId, booking);
-            return booking;
+    public List<Show> findShows(LocalDateTime from, LocalDateTime to) {
+        return showCatalog.findShows(from, to);
+    }
+
+    public List<Show> findShowsByMovie(String movieId, LocalDateTime from, LocalDateTime to) {
+        return showCatalog.findShowsByMovie(movieId, from, to);
+    }
+
+    public List<Show> findShowsByTheater(String theaterId, LocalDateTime from, LocalDateTime to) {
+        return showCatalog.findShowsByTheater(theaterId, from, to);
+    }
+
+    // e.g. shows of movie M after 18:00 in theaters at location L
+    public List<Show> findShows(String movieId, String location, LocalDateTime from, LocalDateTime to) {
+        return showCatalog.findShows(movieId, location, from, to);
+    }
+
+    public Duration getHoldDuration() {
+        return holdDuration;
+    }
+
+    public void setHoldDuration(Duration holdDuration) {
+        this.holdDuration = holdDuration;
+    }
+
+    /**
+     * Recovers bookings from the journal directory, then journals every booking event and
+     * snapshots all active bookings (and so every show's seat state) at the given interval.
+     * Shows must be added before this is called so recovered bookings can claim their seats.
+     */
+    public synchronized void enableJournal(Path directory, Duration snapshotInterval) throws IOException {
+        if (journal != null) {
+            throw new IllegalStateException("journal already enabled");
         }
-        return null;
+        WriteAheadJournal<String[]> newJournal = new WriteAheadJournal<>(directory, "booking", TabSeparatedCodec.INSTANCE);
+        newJournal.recover(this::applyJournalRecord);
+        journal = newJournal;
+        takeSnapshot();
 
+        snapshotScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "booking-snapshot");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalMillis = snapshotInterval.toMillis();
+        snapshotScheduler.scheduleAtFixedRate(() -> {
+            try {
+                takeSnapshot();
+            } catch (IOException e) {
+                System.err.println("booking snapshot failed: " + e.getMessage());
+            }
+        }, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
     }
 
-    boolean areSeatsAvailable(Show show, List<Seat> selectedSeats){
-        for(Seat seat: selectedSeats){
-            Seat showSeat = show.getSeats().get(seat.getId());
-            if(showSeat== null || showSeat.getStatus()!=SeatStatus.AVAILABLE){
-                return false;
+    // stops snapshotting and closes the journal; writes still queued fail instead of hanging
+    public synchronized void disableJournal() {
+        if (journal == null) {
+            return;
+        }
+        snapshotScheduler.shutdownNow();
+        try {
+            snapshotScheduler.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        journal.close();
+        journal = null;
+        snapshotScheduler = null;
+    }
+
+    // the snapshot is fuzzy, replaying the segments after it is idempotent and fixes it up
+    public void takeSnapshot() throws IOException {
+        WriteAheadJournal<String[]> current = journal;
+        if (current == null) {
+            return;
+        }
+        long firstSegmentToReplay = current.rotate();
+        List<String[]> records = new ArrayList<>();
+        for (Booking booking : bookings.values()) {
+            BookingStatus status = booking.getStatus();
+            if (status == BookingStatus.PENDING || status == BookingStatus.CONFIRMED) {
+                records.add(JournalRecords.snapshot(booking));
             }
         }
+        current.writeSnapshot(firstSegmentToReplay, records);
+    }
+
+    public void configureAdmission(Show show, long burst, long admitsPerSecond) {
+        admissionQueues.put(show.getId(), new AdmissionQueue(show, burst, admitsPerSecond));
+    }
+
+    // virtual queue for an on-sale: clients poll isAdmitted instead of retrying bookTickets
+    public QueueToken enterQueue(User user, Show show) {
+        return admissionQueues
+                .computeIfAbsent(show.getId(), id -> new AdmissionQueue(show, DEFAULT_ADMISSION_BURST, DEFAULT_ADMISSIONS_PER_SECOND))
+                .issueToken(user);
+    }
 
-        return true;
+    public boolean isAdmitted(QueueToken token) {
+        AdmissionQueue queue = admissionQueues.get(token.getShow().getId());
+        return queue != null && queue.isAdmitted(token);
     }
-    
-    private void markSeatsAsBooked(Show show, List<Seat> selectedSeats) {
-        for (Seat seat : selectedSeats) {
-            Seat showSeat = show.getSeats().get(seat.getId());
-            showSeat.setStatus(SeatStatus.BOOKED);
+
+    public long positionInQueue(QueueToken token) {
+        AdmissionQueue queue = admissionQueues.get(token.getShow().getId());
+        return queue == null ? 0 : queue.positionInQueue(token);
+    }
+
+    // booking through the virtual queue, returns null while the token is not admitted yet
+    public Booking bookTickets(QueueToken token, List<Seat> selectedSeats) {
+        if (!isAdmitted(token)) {
+            return null;
         }
+        return bookTickets(token.getUser(), token.getShow(), selectedSeats);
+    }
+
+    /**
+     * Puts the user on the show's waitlist instead of retrying. When cancelled or expired
+     * bookings free a block of count seats of the type, it is booked (as a hold) for the
+     * user and passed to onBooked.
+     */
+    public void joinWaitlist(User user, Show show, int count, SeatType seatType, Consumer<Booking> onBooked) {
+        Waitlist waitlist = waitlists.computeIfAbsent(show.getId(), id -> new Waitlist(show));
+        waitlist.join(count, seatType, seats -> {
+            //a failure here makes the waitlist release the seats; once booked they stay booked
+            Booking booking = createBooking(user, show, seats);
+            try {
+                onBooked.accept(booking);
+            } catch (RuntimeException e) {
+                System.err.println("Waitlist callback for booking " + booking.getId() + " failed: " + e.getMessage());
+            }
+        });
+        //seats may already be free again by the time the user joins
+        waitlist.offerReleasedSeats(waitlistExecutor);
     }
 
-    double calculateTotalPrice(List<Seat> selectedSeats){
-        double totalPrice = 0;
-        for(Seat seat: selectedSeats){
-            totalPrice+=seat.getPrice();
+    private void offerToWaitlist(Show show) {
+        Waitlist waitlist = waitlists.get(show.getId());
+        if (waitlist != null) {
+            waitlist.offerReleasedSeats(waitlistExecutor);
         }
-        return totalPrice;
     }
 
-    private String generateBookingId() {
-        long bookingNumber = bookingCounter.incrementAndGet();
-        String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMddHHmmss"));
-        return BOOKING_ID_PREFIX + timestamp + String.format("%06d", bookingNumber);
+    @Override
+    public Booking bookTickets(User user, Show show, List<Seat> selectedSeats){
+        //the show's seat bitmap claims every selected seat or none, without taking a lock
+        if(!show.tryClaimSeats(selectedSeats)){
+            return null;
+        }
+        try{
+            return createBooking(user, show, selectedSeats);
+        }
+        catch(RuntimeException e){
+            show.releaseSeats(selectedSeats);
+            throw e;
+        }
     }
 
-    public synchronized void confirmBooking(String bookingId) {
+    // server-side seat selection: books the best count adjacent seats of the requested type
+    @Override
+    public Booking bookBestAvailable(User user, Show show, int count, SeatType seatType){
+        List<Seat> seats = show.claimBestAvailable(count, seatType);
+        if(seats == null){
+            return null;
+        }
+        try{
+            return createBooking(user, show, seats);
+        }
+        catch(RuntimeException e){
+            show.releaseSeats(seats);
+            throw e;
+        }
+    }
+
+    // a failed journal write throws before the booking is published; the caller releases the seats it claimed
+    private Booking createBooking(User user, Show show, List<Seat> selectedSeats){
+        long totalPriceCents = calculateTotalPrice(show, selectedSeats);
+        long bookingId = bookingIdGenerator.nextId();
+        Booking booking = new Booking(bookingId, user, show, selectedSeats, totalPriceCents, BookingStatus.PENDING);
+        //journaled while the booking is not visible yet, so its CONFIRM, CANCEL or EXPIRE can only follow it in the log
+        awaitDurable(journal(JournalRecords.book(booking)));
+        bookings.put(bookingId, booking);
+        userBookings.add(booking);
+        //seats are only held until the booking is confirmed, abandoned checkouts release them
+        booking.setHoldTimeout(holdTimer.schedule(() -> expireBooking(bookingId), holdDuration.toMillis(), TimeUnit.MILLISECONDS));
+        return booking;
+    }
+
+    boolean areSeatsAvailable(Show show, List<Seat> selectedSeats){
+        return show.areAvailable(selectedSeats);
+    }
+
+    // demand price in cents, a lookup in the show's precomputed price table
+    long calculateTotalPrice(Show show, List<Seat> selectedSeats){
+        return show.quoteCents(selectedSeats);
+    }
+
+    /**
+     * Pending and confirmed bookings of the user ordered by show time, limit at a time.
+     * Start with a null cursor and pass the page's next cursor for the following page.
+     */
+    public BookingPage getBookingHistory(String userId, String cursor, int limit) {
+        return userBookings.page(userId, cursor, limit);
+    }
+
+    @Override
+    public int getNodeId() {
+        return nodeId;
+    }
+
+    @Override
+    public void confirmBooking(String bookingId) {
+        confirmBooking(BookingIdGenerator.parse(bookingId));
+    }
+
+    public void confirmBooking(long bookingId) {
         Booking booking = bookings.get(bookingId);
-        if (booking != null && booking.getStatus() == BookingStatus.PENDING) {
-            booking.setStatus(BookingStatus.CONFIRMED);
+        if (booking != null && booking.transitionStatus(BookingStatus.PENDING, BookingStatus.CONFIRMED)) {
+            cancelHold(booking);
+            booking.getShow().confirmSeats(booking.getSeats());
+            awaitDurable(journal(JournalRecords.statusChange(JournalRecords.CONFIRM, bookingId)));
             // Process payment and send confirmation
             // ...
         }
     }
 
-    public synchronized void cancelBooking(String bookingId) {
+    @Override
+    public void cancelBooking(String bookingId) {
+        cancelBooking(BookingIdGenerator.parse(bookingId));
+    }
+
+    public void cancelBooking(long bookingId) {
         Booking booking = bookings.get(bookingId);
-        if (booking != null && booking.getStatus() != BookingStatus.CANCELLED) {
-            booking.setStatus(BookingStatus.CANCELLED);
-            markSeatsAsAvailable(booking.getShow(), booking.getSeats());
-            // Process refund and send cancellation notification
-            // ...
+        if (booking == null) {
+            return;
+        }
+        BookingStatus status = booking.getStatus();
+        while (status == BookingStatus.PENDING || status == BookingStatus.CONFIRMED) {
+            if (booking.transitionStatus(status, BookingStatus.CANCELLED)) {
+                cancelHold(booking);
+                //queued before the seats are freed, so a booking that re-claims them follows it in the log
+                CompletableFuture<Void> durable = journal(JournalRecords.statusChange(JournalRecords.CANCEL, bookingId));
+                booking.getShow().releaseSeats(booking.getSeats());
+                userBookings.remove(booking);
+                offerToWaitlist(booking.getShow());
+                awaitDurable(durable);
+                // Process refund and send cancellation notification
+                // ...
+                return;
+            }
+            status = booking.getStatus();
+        }
+    }
+
+    // called by the hold timer; a booking confirmed or cancelled in the meantime is left alone
+    void expireBooking(long bookingId) {
+        Booking booking = bookings.get(bookingId);
+        if (booking != null && booking.transitionStatus(BookingStatus.PENDING, BookingStatus.EXPIRED)) {
+            //runs on the timer thread, nobody waits for this one; queued before the seats are freed like CANCEL
+            CompletableFuture<Void> durable = journal(JournalRecords.statusChange(JournalRecords.EXPIRE, bookingId));
+            booking.getShow().releaseSeats(booking.getSeats());
+            userBookings.remove(booking);
+            offerToWaitlist(booking.getShow());
+            if (durable != null) {
+                durable.exceptionally(e -> {
+                    System.err.println("booking journal write failed: " + e.getMessage());
+                    return null;
+                });
+            }
+        }
+    }
+
+    // null when journaling is disabled
+    private CompletableFuture<Void> journal(String[] record) {
+        WriteAheadJournal<String[]> current = journal;
+        return current == null ? null : current.append(record);
+    }
+
+    /**
+     * Client-facing operations wait for the group commit so an acknowledged change survives
+     * a crash. A failed write is thrown instead, the change is then not acknowledged.
+     */
+    private static void awaitDurable(CompletableFuture<Void> durable) {
+        if (durable == null) {
+            return;
+        }
+        try {
+            durable.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw new UncheckedIOException("booking journal write failed", (IOException) cause);
+            }
+            throw e;
+        }
+    }
+
+    private void applyJournalRecord(String[] fields) {
+        switch (fields[0]) {
+            case JournalRecords.BOOK:
+                restoreBooking(fields, 1, BookingStatus.PENDING);
+                break;
+            case JournalRecords.BOOKING:
+                restoreBooking(fields, 2, BookingStatus.valueOf(fields[1]));
+                break;
+            case JournalRecords.CONFIRM: {
+                Booking booking = bookings.get(Long.parseLong(fields[1]));
+                if (booking != null && booking.transitionStatus(BookingStatus.PENDING, BookingStatus.CONFIRMED)) {
+                    cancelHold(booking);
+                    booking.getShow().confirmSeats(booking.getSeats());
+                }
+                break;
+            }
+            case JournalRecords.CANCEL:
+            case JournalRecords.EXPIRE: {
+                Booking booking = bookings.get(Long.parseLong(fields[1]));
+                BookingStatus next = fields[0].equals(JournalRecords.CANCEL) ? BookingStatus.CANCELLED : BookingStatus.EXPIRED;
+                if (booking != null && (booking.transitionStatus(BookingStatus.PENDING, next)
+                        || booking.transitionStatus(BookingStatus.CONFIRMED, next))) {
+                    cancelHold(booking);
+                    booking.getShow().releaseSeats(booking.getSeats());
+                    userBookings.remove(booking);
+                }
+                break;
+            }
+            default:
+                System.err.println("Unknown booking journal record: " + fields[0]);
+        }
+    }
+
+    // fields from offset: id showId userId userName userEmail totalPriceCents seatIds
+    private void restoreBooking(String[] fields, int offset, BookingStatus status) {
+        long bookingId = Long.parseLong(fields[offset]);
+        if (bookings.containsKey(bookingId)) {
+            return;
+        }
+        Show show = shows.get(fields[offset + 1]);
+        if (show == null) {
+            System.err.println("Cannot restore booking " + bookingId + ", unknown show " + fields[offset + 1]);
+            return;
+        }
+        List<Seat> seats = new ArrayList<>();
+        for (String seatId : JournalRecords.splitSeatIds(fields[offset + 6])) {
+            Seat seat = show.getSeats().get(seatId);
+            if (seat == null) {
+                System.err.println("Cannot restore booking " + bookingId + ", unknown seat " + seatId);
+                return;
+            }
+            seats.add(seat);
+        }
+        if (!show.tryClaimSeats(seats)) {
+            System.err.println("Cannot restore booking " + bookingId + ", seats already taken");
+            return;
+        }
+        User user = new User(fields[offset + 2], fields[offset + 3], fields[offset + 4]);
+        Booking booking = new Booking(bookingId, user, show, seats, Long.parseLong(fields[offset + 5]), status);
+        bookings.put(bookingId, booking);
+        userBookings.add(booking);
+        if (status == BookingStatus.PENDING) {
+            booking.setHoldTimeout(holdTimer.schedule(() -> expireBooking(bookingId), holdDuration.toMillis(), TimeUnit.MILLISECONDS));
+        } else {
+            show.confirmSeats(seats);
         }
     }
 
-    private void markSeatsAsAvailable(Show show, List<Seat> seats) {
-        for (Seat seat : seats) {
-            Seat showSeat = show.getSeats().get(seat.getId());
-            showSeat.setStatus(SeatStatus.AVAILABLE);
+    private void cancelHold(Booking booking) {
+        HashedTimerWheel.Timeout holdTimeout = booking.getHoldTimeout();
+        if (holdTimeout != null) {
+            holdTimeout.cancel();
         }
     }
 
@@ -1,24 +1,76 @@
 package MovieTicketBookingSystem;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
 import java.util.Map;
+import java.util.function.ObjIntConsumer;
+import MovieTicketBookingSystem.pricing.DemandPricingPolicy;
+import MovieTicketBookingSystem.pricing.PriceTable;
+import MovieTicketBookingSystem.pricing.PricingPolicy;
 import MovieTicketBookingSystem.seat.*;
 
 public class Show {
     private final String id;
     private final Movie movie;
     private final Theater theater;
+    //null for shows of theaters without screens, those are not checked for overlaps
+    private final String screenId;
     private final LocalDateTime startTime;
     private final LocalDateTime endTime;
     private final Map<String, Seat> seats;
+    //authoritative seat state; Seat.getStatus() only mirrors it for display
+    private final SeatBitmap seatBitmap;
+    private final Seat[] seatsByIndex;
+    private final SeatAllocator seatAllocator;
+    private final SeatAvailability seatAvailability;
+    private final long[] baseCents;
+    private final SeatType[] seatTypes;
+    private volatile PriceTable priceTable;
+    //moves the price buckets inside the availability write section, so they follow the final counts
+    private final ObjIntConsumer<SeatType> priceUpdater = (type, available) -> priceTable.onAvailabilityChanged(type, available);
     
     public Show(String id, Movie movie, Theater theater, LocalDateTime startTime, LocalDateTime endTime, Map<String, Seat> seats) {
+        this(id, movie, theater, null, startTime, endTime, seats);
+    }
+
+    public Show(String id, Movie movie, Theater theater, String screenId, LocalDateTime startTime, LocalDateTime endTime, Map<String, Seat> seats) {
         this.id = id;
         this.movie = movie;
         this.theater = theater;
+        this.screenId = screenId;
         this.startTime = startTime;
         this.endTime = endTime;
         this.seats = seats;
+
+        int rows = 0;
+        int columns = 0;
+        for (Seat seat : seats.values()) {
+            rows = Math.max(rows, seat.getRow());
+            columns = Math.max(columns, seat.getColumn());
+        }
+        this.seatBitmap = new SeatBitmap(rows, columns);
+        this.seatsByIndex = new Seat[rows * columns];
+        int[] totals = new int[SeatType.values().length];
+        int[] available = new int[totals.length];
+        this.baseCents = new long[rows * columns];
+        this.seatTypes = new SeatType[rows * columns];
+        for (Seat seat : seats.values()) {
+            int index = seatBitmap.indexOf(seat.getRow(), seat.getColumn());
+            seatsByIndex[index] = seat;
+            baseCents[index] = PriceTable.toCents(seat.getPrice());
+            seatTypes[index] = seat.getType();
+            totals[seat.getType().ordinal()]++;
+            if (seat.getStatus() != SeatStatus.AVAILABLE) {
+                seatBitmap.tryClaim(index);
+            } else {
+                available[seat.getType().ordinal()]++;
+            }
+        }
+        this.seatAllocator = new SeatAllocator(seatBitmap, seatsByIndex, RowPreference.CENTER_BACK);
+        this.seatAvailability = new SeatAvailability(totals, available);
+        this.priceTable = new PriceTable(baseCents, seatTypes, totals, available, startTime, new DemandPricingPolicy());
     }
     
     public String getId() {
@@ -33,6 +85,10 @@ public class Show {
         return theater;
     }
 
+    public String getScreenId() {
+        return screenId;
+    }
+
     public LocalDateTime getStartTime() {
         return startTime;
     }
@@ -45,4 +101,151 @@ public class Show {
         return seats;
     }
 
+    public SeatBitmap getSeatBitmap() {
+        return seatBitmap;
+    }
+
+    // bitmap index of a seat of this show, or -1 if the seat does not belong to it
+    public int indexOf(Seat seat) {
+        int index = seatBitmap.indexOf(seat.getRow(), seat.getColumn());
+        if (index < 0) {
+            return -1;
+        }
+        Seat showSeat = seatsByIndex[index];
+        if (showSeat == null || (showSeat != seat && !showSeat.getId().equals(seat.getId()))) {
+            return -1;
+        }
+        return index;
+    }
+
+    // per seat type counts for listing pages, does not touch the seats
+    public SeatAvailability.Snapshot getAvailability() {
+        return seatAvailability.snapshot();
+    }
+
+    /**
+     * Rebuilds the price table from the policy at the current occupancy. Seats being
+     * claimed while it is rebuilt are picked up by the next claim or release of their type.
+     */
+    public void setPricingPolicy(PricingPolicy policy) {
+        SeatAvailability.Snapshot snapshot = seatAvailability.snapshot();
+        SeatType[] types = SeatType.values();
+        int[] totals = new int[types.length];
+        int[] available = new int[types.length];
+        for (SeatType type : types) {
+            totals[type.ordinal()] = snapshot.getTotal(type);
+            available[type.ordinal()] = snapshot.getAvailable(type);
+        }
+        priceTable = new PriceTable(baseCents, seatTypes, totals, available, startTime, policy);
+    }
+
+    // current price of the seats in cents, seats that do not belong to the show are not priced
+    public long quoteCents(List<Seat> selectedSeats) {
+        PriceTable table = priceTable;
+        long total = 0;
+        for (Seat seat : selectedSeats) {
+            int index = indexOf(seat);
+            if (index >= 0) {
+                total += table.quoteCents(index);
+            }
+        }
+        return total;
+    }
+
+    public Seat getSeatAt(int index) {
+        return seatsByIndex[index];
+    }
+
+    public boolean isAvailable(Seat seat) {
+        int index = indexOf(seat);
+        return index >= 0 && !seatBitmap.isTaken(index);
+    }
+
+    public boolean areAvailable(List<Seat> selectedSeats) {
+        for (Seat seat : selectedSeats) {
+            if (!isAvailable(seat)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Atomically claims every seat or none of them. Claimed seats are HELD until confirmed.
+     */
+    public boolean tryClaimSeats(List<Seat> selectedSeats) {
+        int[] indexes = indexesOf(selectedSeats);
+        if (indexes == null || !seatBitmap.tryClaimAll(indexes)) {
+            return false;
+        }
+        List<SeatType> types = new ArrayList<>(indexes.length);
+        for (int index : indexes) {
+            seatsByIndex[index].setStatus(SeatStatus.HELD);
+            seatAllocator.markDirty(index);
+            types.add(seatsByIndex[index].getType());
+        }
+        seatAvailability.onClaimed(types, priceUpdater);
+        return true;
+    }
+
+    /**
+     * Claims the best count adjacent seats of the given type, or returns null if
+     * no row has such a block. Claimed seats are HELD like with tryClaimSeats.
+     */
+    public List<Seat> claimBestAvailable(int count, SeatType type) {
+        List<Seat> claimed = seatAllocator.allocate(count, type);
+        if (claimed == null) {
+            return null;
+        }
+        List<SeatType> types = new ArrayList<>(claimed.size());
+        for (Seat seat : claimed) {
+            seat.setStatus(SeatStatus.HELD);
+            types.add(seat.getType());
+        }
+        seatAvailability.onClaimed(types, priceUpdater);
+        return claimed;
+    }
+
+    // seats stay taken in the bitmap, only the displayed status changes from HELD to BOOKED
+    public void confirmSeats(List<Seat> selectedSeats) {
+        for (Seat seat : selectedSeats) {
+            int index = indexOf(seat);
+            if (index >= 0) {
+                seatsByIndex[index].setStatus(SeatStatus.BOOKED);
+            }
+        }
+    }
+
+    public void releaseSeats(List<Seat> selectedSeats) {
+        int[] indexes = indexesOf(selectedSeats);
+        if (indexes == null) {
+            return;
+        }
+        //mirror first so a concurrent re-claim of the seat is not overwritten with AVAILABLE
+        for (int index : indexes) {
+            seatsByIndex[index].setStatus(SeatStatus.AVAILABLE);
+        }
+        seatBitmap.releaseAll(indexes);
+        List<SeatType> types = new ArrayList<>(indexes.length);
+        for (int index : indexes) {
+            seatAllocator.markDirty(index);
+            types.add(seatsByIndex[index].getType());
+        }
+        seatAvailability.onReleased(types, priceUpdater);
+    }
+
+    // null for an unknown seat or one selected twice, which must not be claimed or priced twice
+    private int[] indexesOf(List<Seat> selectedSeats) {
+        int[] indexes = new int[selectedSeats.size()];
+        BitSet seen = new BitSet();
+        for (int i = 0; i < indexes.length; i++) {
+            indexes[i] = indexOf(selectedSeats.get(i));
+            if (indexes[i] < 0 || seen.get(indexes[i])) {
+                return null;
+            }
+            seen.set(indexes[i]);
+        }
+        return indexes;
+    }
+
 }
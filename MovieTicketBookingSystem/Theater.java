@@ -1,18 +1,32 @@
 package MovieTicketBookingSystem;
 
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+import MovieTicketBookingSystem.schedule.ScreenSchedule;
+import MovieTicketBookingSystem.search.ShowKey;
 
 public class Theater {
+    public static final Duration DEFAULT_CLEANING_BUFFER = Duration.ofMinutes(15);
+
     private final String id;
     private final String name;
     private final String location;
-    private final List<Show> shows;
+    //kept in start time order, filled by MovieTicketBookingSystem.addShow
+    private final NavigableMap<ShowKey, Show> shows = new ConcurrentSkipListMap<>();
+    //one schedule per screen, shows with a screen id are validated against it
+    private final NavigableMap<String, ScreenSchedule> screens = new ConcurrentSkipListMap<>();
 
     public Theater(String id, String name, String location, List<Show> shows) {
         this.id = id;
         this.name = name;
         this.location = location;
-        this.shows = shows;
+        for (Show show : shows) {
+            addShow(show);
+        }
     }
     public String getId() {
         return id;
@@ -27,7 +41,38 @@ public class Theater {
     }
 
     public List<Show> getShows() {
-        return shows;
+        return new ArrayList<>(shows.values());
+    }
+
+    public void addScreen(String screenId) {
+        addScreen(screenId, DEFAULT_CLEANING_BUFFER);
+    }
+
+    public void addScreen(String screenId, Duration cleaningBuffer) {
+        screens.putIfAbsent(screenId, new ScreenSchedule(screenId, cleaningBuffer));
+    }
+
+    public List<String> getScreenIds() {
+        return new ArrayList<>(screens.keySet());
+    }
+
+    public ScreenSchedule getScreenSchedule(String screenId) {
+        return screens.get(screenId);
+    }
+
+    /**
+     * Adds the show, unless it is for an unknown screen or overlaps another show on its
+     * screen. Shows without a screen id are always added.
+     */
+    public boolean addShow(Show show) {
+        if (show.getScreenId() != null) {
+            ScreenSchedule schedule = screens.get(show.getScreenId());
+            if (schedule == null || !schedule.tryAdd(show)) {
+                return false;
+            }
+        }
+        shows.put(ShowKey.of(show), show);
+        return true;
     }
     
-}
\ No newline at end of file
+}
@@ -0,0 +1,45 @@
+package MovieTicketBookingSystem.admission;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import MovieTicketBookingSystem.Show;
+import MovieTicketBookingSystem.User;
+
+/**
+ * Virtual queue in front of a show's booking page. Every user gets an ordered token,
+ * and tokens are admitted at a fixed rate after an initial burst, so an on-sale turns
+ * into a steady stream of booking attempts instead of a retry storm.
+ *
+ * The admitted horizon is computed from the clock, so checking a token is wait-free.
+ */
+public class AdmissionQueue {
+    private final Show show;
+    private final AtomicLong nextSequence = new AtomicLong();
+    private final long openedAtNanos = System.nanoTime();
+    private final long burst;
+    private final long admitsPerSecond;
+
+    public AdmissionQueue(Show show, long burst, long admitsPerSecond) {
+        this.show = show;
+        this.burst = burst;
+        this.admitsPerSecond = admitsPerSecond;
+    }
+
+    public QueueToken issueToken(User user) {
+        return new QueueToken(show, user, nextSequence.getAndIncrement());
+    }
+
+    public boolean isAdmitted(QueueToken token) {
+        return token.getShow() == show && token.getSequence() < admittedCount();
+    }
+
+    // how many tokens are still in front of this one, 0 once admitted
+    public long positionInQueue(QueueToken token) {
+        return Math.max(0, token.getSequence() - admittedCount() + 1);
+    }
+
+    private long admittedCount() {
+        long elapsedNanos = System.nanoTime() - openedAtNanos;
+        return burst + elapsedNanos / 1_000_000 * admitsPerSecond / 1000;
+    }
+}
@@ -0,0 +1,31 @@
+package MovieTicketBookingSystem.admission;
+
+import MovieTicketBookingSystem.Show;
+import MovieTicketBookingSystem.User;
+
+/**
+ * Place of a user in a show's virtual queue. Tokens are admitted in sequence order.
+ */
+public final class QueueToken {
+    private final Show show;
+    private final User user;
+    private final long sequence;
+
+    QueueToken(Show show, User user, long sequence) {
+        this.show = show;
+        this.user = user;
+        this.sequence = sequence;
+    }
+
+    public Show getShow() {
+        return show;
+    }
+
+    public User getUser() {
+        return user;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+}
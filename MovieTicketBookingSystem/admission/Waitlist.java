@@ -0,0 +1,97 @@
+package MovieTicketBookingSystem.admission;
+
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import MovieTicketBookingSystem.Show;
+import MovieTicketBookingSystem.seat.Seat;
+import MovieTicketBookingSystem.seat.SeatType;
+
+/**
+ * FIFO of users waiting for seats of a sold out show. When seats are released the
+ * waitlist is drained on the offer executor: the head entry gets the best block that
+ * fits its request, and draining stops at the first entry that cannot be served so
+ * later, smaller requests do not jump the queue.
+ */
+public class Waitlist {
+    private final Show show;
+    private final Queue<Entry> entries = new ConcurrentLinkedQueue<>();
+    //offers not yet looked at by the drain; the drain runs while this is above zero
+    private final AtomicInteger pendingOffers = new AtomicInteger();
+
+    public Waitlist(Show show) {
+        this.show = show;
+    }
+
+    // onSeatsClaimed runs on the offer executor with seats already claimed (HELD) for this entry;
+    // if it throws, the seats are released again, so it must only throw before taking them over
+    public void join(int count, SeatType seatType, Consumer<List<Seat>> onSeatsClaimed) {
+        entries.add(new Entry(count, seatType, onSeatsClaimed));
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    // cheap on the releasing thread; at most one drain per show runs at a time
+    public void offerReleasedSeats(Executor executor) {
+        if (pendingOffers.getAndIncrement() == 0) {
+            executor.execute(() -> drain(executor));
+        }
+    }
+
+    private void drain(Executor executor) {
+        int seen = pendingOffers.get();
+        boolean drained = false;
+        try {
+            while (true) {
+                serveEntries();
+                //seats released while we were draining would otherwise be missed
+                if (pendingOffers.compareAndSet(seen, 0)) {
+                    drained = true;
+                    return;
+                }
+                seen = pendingOffers.get();
+            }
+        } finally {
+            //a failed drain must not leave the counter up, or no later release would drain again
+            if (!drained && pendingOffers.getAndSet(0) != seen) {
+                offerReleasedSeats(executor);
+            }
+        }
+    }
+
+    private void serveEntries() {
+        Entry head;
+        while ((head = entries.peek()) != null) {
+            List<Seat> seats = show.claimBestAvailable(head.count, head.seatType);
+            if (seats == null) {
+                return;
+            }
+            entries.poll();
+            try {
+                head.onSeatsClaimed.accept(seats);
+            } catch (RuntimeException e) {
+                //the entry is dropped, its seats go to the next one in line
+                show.releaseSeats(seats);
+                System.err.println("Waitlist offer for show " + show.getId() + " failed: " + e.getMessage());
+            }
+        }
+    }
+
+    private static final class Entry {
+        private final int count;
+        private final SeatType seatType;
+        private final Consumer<List<Seat>> onSeatsClaimed;
+
+        Entry(int count, SeatType seatType, Consumer<List<Seat>> onSeatsClaimed) {
+            this.count = count;
+            this.seatType = seatType;
+            this.onSeatsClaimed = onSeatsClaimed;
+        }
+    }
+}
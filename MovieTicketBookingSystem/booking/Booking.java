@@ -1,33 +1,62 @@
 package MovieTicketBookingSystem.booking;
 
 import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
 
 import MovieTicketBookingSystem.Show;
+import MovieTicketBookingSystem.hold.HashedTimerWheel;
 import MovieTicketBookingSystem.seat.Seat;
 import MovieTicketBookingSystem.User;
 
 public class Booking {
-    private final String id;
+    private final long id;
+    //encoded lazily, most bookings are never displayed by id
+    private String displayId;
     private final User user;
     private final Show show;
     private final List<Seat> seats;
-    private final double totalPrice;
-    private BookingStatus status;
+    //fixed-point, quoted from the show's price table when the seats were claimed
+    private final long totalPriceCents;
+    private final AtomicReference<BookingStatus> status;
+    //expiry of the seat hold while the booking is PENDING
+    private volatile HashedTimerWheel.Timeout holdTimeout;
 
-    public Booking(String id, User user, Show show, List<Seat> seats, double totalPrice, BookingStatus status) {
+    public Booking(long id, User user, Show show, List<Seat> seats, long totalPriceCents, BookingStatus status) {
         this.id = id;
         this.user = user;
         this.show = show;
         this.seats = seats;
-        this.totalPrice = totalPrice;
-        this.status = status;
+        this.totalPriceCents = totalPriceCents;
+        this.status = new AtomicReference<>(status);
     }
 
     public void setStatus(BookingStatus status){
-        this.status = status;
+        this.status.set(status);
+    }
+
+    // status changes only if it still is the expected one, so racing confirm/cancel calls cannot both win
+    public boolean transitionStatus(BookingStatus expected, BookingStatus next){
+        return status.compareAndSet(expected, next);
+    }
+
+    public HashedTimerWheel.Timeout getHoldTimeout() {
+        return holdTimeout;
+    }
+
+    public void setHoldTimeout(HashedTimerWheel.Timeout holdTimeout) {
+        this.holdTimeout = holdTimeout;
     }
 
     public String getId() {
+        String encoded = displayId;
+        if (encoded == null) {
+            encoded = BookingIdGenerator.encode(id);
+            displayId = encoded;
+        }
+        return encoded;
+    }
+
+    public long getNumericId() {
         return id;
     }
 
@@ -44,11 +73,15 @@ public class Booking {
     }
 
     public double getTotalPrice() {
-        return totalPrice;
+        return totalPriceCents / 100.0;
+    }
+
+    public long getTotalPriceCents() {
+        return totalPriceCents;
     }
 
     public BookingStatus getStatus() {
-        return status;
+        return status.get();
     }
 
     
@@ -0,0 +1,72 @@
+package MovieTicketBookingSystem.booking;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Snowflake-style booking ids: 41 bits of milliseconds since 2024-01-01, 10 bits of node
+ * id and a 12 bit sequence per millisecond. Ids are unique across nodes, sort by creation
+ * time, and generating one is a single CAS with no formatting.
+ *
+ * The String form ("BKG" + zero padded base 36, so it sorts the same way) is only built
+ * by encode() when an id is displayed.
+ */
+public class BookingIdGenerator {
+    public static final int MAX_NODE_ID = (1 << 10) - 1;
+
+    private static final long EPOCH_MILLIS = 1704067200000L;
+    private static final int SEQUENCE_BITS = 12;
+    private static final int NODE_BITS = 10;
+    private static final String PREFIX = "BKG";
+    private static final int ENCODED_LENGTH = 13;
+
+    private final long nodeBits;
+    //timestamp << SEQUENCE_BITS | sequence of the last id handed out
+    private final AtomicLong lastState = new AtomicLong();
+
+    public BookingIdGenerator(int nodeId) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("node id must be between 0 and " + MAX_NODE_ID);
+        }
+        this.nodeBits = (long) nodeId << SEQUENCE_BITS;
+    }
+
+    public long nextId() {
+        while (true) {
+            long last = lastState.get();
+            long now = (System.currentTimeMillis() - EPOCH_MILLIS) << SEQUENCE_BITS;
+            //sequence overflow carries into the timestamp, so a burst borrows the next millisecond
+            //instead of spinning, and a clock moving backwards never produces duplicates
+            long next = now > last ? now : last + 1;
+            if (lastState.compareAndSet(last, next)) {
+                long timestamp = next >>> SEQUENCE_BITS;
+                long sequence = next & ((1L << SEQUENCE_BITS) - 1);
+                return (timestamp << (NODE_BITS + SEQUENCE_BITS)) | nodeBits | sequence;
+            }
+        }
+    }
+
+    public static int nodeOf(long id) {
+        return (int) ((id >>> SEQUENCE_BITS) & MAX_NODE_ID);
+    }
+
+    public static String encode(long id) {
+        String digits = Long.toString(id, 36);
+        StringBuilder sb = new StringBuilder(PREFIX.length() + ENCODED_LENGTH).append(PREFIX);
+        for (int i = digits.length(); i < ENCODED_LENGTH; i++) {
+            sb.append('0');
+        }
+        return sb.append(digits).toString();
+    }
+
+    // returns -1 for strings that are not booking ids
+    public static long parse(String encoded) {
+        if (encoded == null || !encoded.startsWith(PREFIX) || encoded.length() != PREFIX.length() + ENCODED_LENGTH) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(encoded.substring(PREFIX.length()), 36);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
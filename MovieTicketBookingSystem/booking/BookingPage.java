@@ -0,0 +1,29 @@
+package MovieTicketBookingSystem.booking;
+
+import java.util.List;
+
+/**
+ * One page of a user's bookings. Pass nextCursor to fetch the following page; it is
+ * null on the last page.
+ */
+public final class BookingPage {
+    private final List<Booking> bookings;
+    private final String nextCursor;
+
+    public BookingPage(List<Booking> bookings, String nextCursor) {
+        this.bookings = bookings;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<Booking> getBookings() {
+        return bookings;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public boolean hasMore() {
+        return nextCursor != null;
+    }
+}
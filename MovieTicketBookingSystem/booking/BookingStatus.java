@@ -3,5 +3,6 @@ package MovieTicketBookingSystem.booking;
 public enum BookingStatus {
     PENDING,
     CONFIRMED,
-    CANCELLED
+    CANCELLED,
+    EXPIRED
 }
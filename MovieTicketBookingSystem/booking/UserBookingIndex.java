@@ -0,0 +1,116 @@
+package MovieTicketBookingSystem.booking;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Active bookings of every user ordered by show start time, then booking id.
+ *
+ * A page is a range scan of the user's skip list starting after the cursor, so its
+ * cost depends on the page size and the user's own bookings, never on the total
+ * number of bookings. The cursor encodes the last key returned, which keeps paging
+ * stable while bookings are added or cancelled in between.
+ */
+public class UserBookingIndex {
+    private final Map<String, NavigableMap<Key, Booking>> bookingsByUser = new ConcurrentHashMap<>();
+
+    public void add(Booking booking) {
+        bookingsByUser.computeIfAbsent(booking.getUser().getId(), id -> new ConcurrentSkipListMap<>())
+                .put(Key.of(booking), booking);
+    }
+
+    public void remove(Booking booking) {
+        NavigableMap<Key, Booking> userBookings = bookingsByUser.get(booking.getUser().getId());
+        if (userBookings != null) {
+            userBookings.remove(Key.of(booking));
+        }
+    }
+
+    public int count(String userId) {
+        NavigableMap<Key, Booking> userBookings = bookingsByUser.get(userId);
+        return userBookings == null ? 0 : userBookings.size();
+    }
+
+    /**
+     * Up to limit bookings after the cursor, or from the first one if the cursor is null.
+     * Throws IllegalArgumentException for a cursor not produced by this index.
+     */
+    public BookingPage page(String userId, String cursor, int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Page size must be positive: " + limit);
+        }
+        NavigableMap<Key, Booking> userBookings = bookingsByUser.get(userId);
+        if (userBookings == null) {
+            return new BookingPage(Collections.emptyList(), null);
+        }
+        NavigableMap<Key, Booking> remaining = cursor == null ? userBookings : userBookings.tailMap(Key.decode(cursor), false);
+        List<Booking> page = new ArrayList<>(Math.min(limit, 64));
+        Key last = null;
+        for (Map.Entry<Key, Booking> entry : remaining.entrySet()) {
+            if (page.size() == limit) {
+                return new BookingPage(page, last.encode());
+            }
+            page.add(entry.getValue());
+            last = entry.getKey();
+        }
+        return new BookingPage(page, null);
+    }
+
+    private static final class Key implements Comparable<Key> {
+        private final long showStartSecond;
+        private final long bookingId;
+
+        private Key(long showStartSecond, long bookingId) {
+            this.showStartSecond = showStartSecond;
+            this.bookingId = bookingId;
+        }
+
+        static Key of(Booking booking) {
+            LocalDateTime startTime = booking.getShow().getStartTime();
+            return new Key(startTime.toEpochSecond(ZoneOffset.UTC), booking.getNumericId());
+        }
+
+        String encode() {
+            return Long.toString(showStartSecond, 36) + '.' + Long.toString(bookingId, 36);
+        }
+
+        static Key decode(String cursor) {
+            int dot = cursor.indexOf('.');
+            try {
+                if (dot > 0) {
+                    return new Key(Long.parseLong(cursor.substring(0, dot), 36), Long.parseLong(cursor.substring(dot + 1), 36));
+                }
+            } catch (NumberFormatException e) {
+                //reported below
+            }
+            throw new IllegalArgumentException("Invalid booking cursor: " + cursor);
+        }
+
+        @Override
+        public int compareTo(Key other) {
+            int byTime = Long.compare(showStartSecond, other.showStartSecond);
+            return byTime != 0 ? byTime : Long.compare(bookingId, other.bookingId);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return showStartSecond == other.showStartSecond && bookingId == other.bookingId;
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(showStartSecond) * 31 + Long.hashCode(bookingId);
+        }
+    }
+}
@@ -0,0 +1,235 @@
+package MovieTicketBookingSystem.hold;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hashed timer wheel used to expire seat holds.
+ *
+ * A single worker thread advances one bucket per tick, instead of one scheduled task
+ * per hold. Scheduling and cancelling are O(1) queue operations on the caller's side;
+ * the worker moves them into or out of the bucket lists. Expiry precision is one tick.
+ */
+public class HashedTimerWheel {
+    private static final int MAX_TRANSFERS_PER_TICK = 100_000;
+
+    private final long tickNanos;
+    private final Bucket[] wheel;
+    private final int mask;
+    private final Queue<Timeout> pendingTimeouts = new ConcurrentLinkedQueue<>();
+    private final Queue<Timeout> cancelledTimeouts = new ConcurrentLinkedQueue<>();
+    private final Thread workerThread;
+    private final AtomicInteger workerState = new AtomicInteger(WORKER_INIT);
+    private volatile long startTime;
+    private long tick;
+
+    private static final int WORKER_INIT = 0;
+    private static final int WORKER_STARTED = 1;
+    private static final int WORKER_STOPPED = 2;
+
+    public HashedTimerWheel(long tickDuration, TimeUnit unit, int ticksPerWheel) {
+        if (tickDuration <= 0 || ticksPerWheel <= 0) {
+            throw new IllegalArgumentException("tick duration and wheel size must be positive");
+        }
+        int size = Integer.highestOneBit(ticksPerWheel - 1) << 1;
+        if (size <= 0) {
+            size = 1;
+        }
+        this.tickNanos = unit.toNanos(tickDuration);
+        this.wheel = new Bucket[size];
+        for (int i = 0; i < size; i++) {
+            wheel[i] = new Bucket();
+        }
+        this.mask = size - 1;
+        this.workerThread = new Thread(this::runWorker, "seat-hold-timer");
+        this.workerThread.setDaemon(true);
+    }
+
+    public Timeout schedule(Runnable task, long delay, TimeUnit unit) {
+        start();
+        long deadline = System.nanoTime() + unit.toNanos(delay) - startTime;
+        Timeout timeout = new Timeout(this, task, deadline);
+        pendingTimeouts.add(timeout);
+        return timeout;
+    }
+
+    public void stop() {
+        if (workerState.getAndSet(WORKER_STOPPED) == WORKER_STARTED) {
+            workerThread.interrupt();
+        }
+    }
+
+    private void start() {
+        if (workerState.get() == WORKER_INIT && workerState.compareAndSet(WORKER_INIT, WORKER_STARTED)) {
+            long now = System.nanoTime();
+            //0 means "not started yet" to the spin below, and nanoTime may legitimately return it
+            startTime = now == 0 ? 1 : now;
+            workerThread.start();
+        }
+        while (startTime == 0 && workerState.get() == WORKER_STARTED) {
+            Thread.onSpinWait();
+        }
+    }
+
+    private void runWorker() {
+        while (workerState.get() == WORKER_STARTED) {
+            if (!waitForNextTick()) {
+                return;
+            }
+            removeCancelledTimeouts();
+            transferPendingTimeouts();
+            wheel[(int) (tick & mask)].expireTimeouts();
+            tick++;
+        }
+    }
+
+    // returns false when the timer was stopped while waiting
+    private boolean waitForNextTick() {
+        long deadline = tickNanos * (tick + 1);
+        while (true) {
+            long current = System.nanoTime() - startTime;
+            long sleepMillis = (deadline - current + 999_999) / 1_000_000;
+            if (sleepMillis <= 0) {
+                return true;
+            }
+            try {
+                Thread.sleep(sleepMillis);
+            } catch (InterruptedException e) {
+                if (workerState.get() == WORKER_STOPPED) {
+                    return false;
+                }
+            }
+        }
+    }
+
+    private void transferPendingTimeouts() {
+        for (int i = 0; i < MAX_TRANSFERS_PER_TICK; i++) {
+            Timeout timeout = pendingTimeouts.poll();
+            if (timeout == null) {
+                return;
+            }
+            if (timeout.state.get() == Timeout.CANCELLED) {
+                continue;
+            }
+            long calculated = timeout.deadline / tickNanos;
+            timeout.remainingRounds = (calculated - tick) / wheel.length;
+            //a deadline already in the past goes into the current bucket
+            long ticks = Math.max(calculated, tick);
+            wheel[(int) (ticks & mask)].add(timeout);
+        }
+    }
+
+    private void removeCancelledTimeouts() {
+        Timeout timeout;
+        while ((timeout = cancelledTimeouts.poll()) != null) {
+            if (timeout.bucket != null) {
+                timeout.bucket.remove(timeout);
+            }
+        }
+    }
+
+    public static final class Timeout {
+        private static final int INIT = 0;
+        private static final int CANCELLED = 1;
+        private static final int EXPIRED = 2;
+
+        private final HashedTimerWheel timer;
+        private final Runnable task;
+        private final long deadline;
+        private final AtomicInteger state = new AtomicInteger(INIT);
+        // the fields below are only touched by the worker thread
+        private long remainingRounds;
+        private Timeout next;
+        private Timeout prev;
+        private Bucket bucket;
+
+        private Timeout(HashedTimerWheel timer, Runnable task, long deadline) {
+            this.timer = timer;
+            this.task = task;
+            this.deadline = deadline;
+        }
+
+        // returns false if the task already ran or was cancelled before
+        public boolean cancel() {
+            if (!state.compareAndSet(INIT, CANCELLED)) {
+                return false;
+            }
+            timer.cancelledTimeouts.add(this);
+            return true;
+        }
+
+        public boolean isExpired() {
+            return state.get() == EXPIRED;
+        }
+
+        public boolean isCancelled() {
+            return state.get() == CANCELLED;
+        }
+
+        private void expire() {
+            if (!state.compareAndSet(INIT, EXPIRED)) {
+                return;
+            }
+            try {
+                task.run();
+            } catch (Exception e) {
+                System.err.println("seat hold expiry failed: " + e.getMessage());
+            }
+        }
+    }
+
+    // intrusive doubly linked list so a cancelled timeout is unlinked in O(1)
+    private static final class Bucket {
+        private Timeout head;
+        private Timeout tail;
+
+        void add(Timeout timeout) {
+            timeout.bucket = this;
+            if (head == null) {
+                head = tail = timeout;
+            } else {
+                tail.next = timeout;
+                timeout.prev = tail;
+                tail = timeout;
+            }
+        }
+
+        void expireTimeouts() {
+            Timeout timeout = head;
+            while (timeout != null) {
+                Timeout next = timeout.next;
+                if (timeout.remainingRounds <= 0) {
+                    //the bucket index was derived from the deadline, so it has passed by now
+                    remove(timeout);
+                    timeout.expire();
+                } else if (timeout.isCancelled()) {
+                    remove(timeout);
+                } else {
+                    timeout.remainingRounds--;
+                }
+                timeout = next;
+            }
+        }
+
+        void remove(Timeout timeout) {
+            if (timeout.bucket != this) {
+                return;
+            }
+            if (timeout.prev != null) {
+                timeout.prev.next = timeout.next;
+            } else {
+                head = timeout.next;
+            }
+            if (timeout.next != null) {
+                timeout.next.prev = timeout.prev;
+            } else {
+                tail = timeout.prev;
+            }
+            timeout.next = null;
+            timeout.prev = null;
+            timeout.bucket = null;
+        }
+    }
+}
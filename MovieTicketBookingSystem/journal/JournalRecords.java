@@ -0,0 +1,93 @@
+package MovieTicketBookingSystem.journal;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import MovieTicketBookingSystem.booking.Booking;
+import MovieTicketBookingSystem.seat.Seat;
+
+/**
+ * Fields of the booking journal records, written by a WriteAheadJournal with the
+ * TabSeparatedCodec. Booking ids are written as their numeric value. Seat ids are
+ * joined with ',' after escaping ',' and backslash inside each id, see joinSeatIds.
+ *
+ *   BOOK     id showId userId userName userEmail totalPriceCents seatId,seatId...
+ *   CONFIRM  id
+ *   CANCEL   id
+ *   EXPIRE   id
+ *   BOOKING  status id showId userId userName userEmail totalPriceCents seatIds   (snapshots)
+ */
+public final class JournalRecords {
+    public static final String BOOK = "BOOK";
+    public static final String CONFIRM = "CONFIRM";
+    public static final String CANCEL = "CANCEL";
+    public static final String EXPIRE = "EXPIRE";
+    public static final String BOOKING = "BOOKING";
+
+    private JournalRecords() {
+    }
+
+    public static String[] book(Booking booking) {
+        return bookingFields(booking, BOOK);
+    }
+
+    public static String[] snapshot(Booking booking) {
+        return bookingFields(booking, BOOKING, booking.getStatus().name());
+    }
+
+    public static String[] statusChange(String type, long bookingId) {
+        return new String[] {type, Long.toString(bookingId)};
+    }
+
+    // the booking's fields after the given leading ones
+    private static String[] bookingFields(Booking booking, String... leading) {
+        String[] fields = Arrays.copyOf(leading, leading.length + 7);
+        int i = leading.length;
+        fields[i++] = Long.toString(booking.getNumericId());
+        fields[i++] = booking.getShow().getId();
+        fields[i++] = booking.getUser().getId();
+        fields[i++] = booking.getUser().getName();
+        fields[i++] = booking.getUser().getEmail();
+        fields[i++] = Long.toString(booking.getTotalPriceCents());
+        fields[i] = joinSeatIds(booking.getSeats());
+        return fields;
+    }
+
+    // one field holding every seat id; ',' and backslash inside an id are escaped
+    public static String joinSeatIds(List<Seat> seats) {
+        StringBuilder sb = new StringBuilder();
+        for (Seat seat : seats) {
+            if (sb.length() > 0) {
+                sb.append(',');
+            }
+            String seatId = seat.getId();
+            for (int i = 0; i < seatId.length(); i++) {
+                char c = seatId.charAt(i);
+                if (c == ',' || c == '\\') {
+                    sb.append('\\');
+                }
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+    public static List<String> splitSeatIds(String joined) {
+        List<String> seatIds = new ArrayList<>();
+        StringBuilder seatId = new StringBuilder();
+        for (int i = 0; i < joined.length(); i++) {
+            char c = joined.charAt(i);
+            if (c == ',') {
+                seatIds.add(seatId.toString());
+                seatId.setLength(0);
+            } else if (c == '\\' && i + 1 < joined.length()) {
+                seatId.append(joined.charAt(++i));
+            } else {
+                seatId.append(c);
+            }
+        }
+        seatIds.add(seatId.toString());
+        return seatIds;
+    }
+}
@@ -0,0 +1,70 @@
+package MovieTicketBookingSystem.journal;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import Journal.TabSeparatedCodec;
+import Journal.WriteAheadJournal;
+import MovieTicketBookingSystem.Movie;
+import MovieTicketBookingSystem.Show;
+import MovieTicketBookingSystem.Theater;
+import MovieTicketBookingSystem.User;
+import MovieTicketBookingSystem.booking.Booking;
+import MovieTicketBookingSystem.booking.BookingStatus;
+import MovieTicketBookingSystem.seat.Seat;
+import MovieTicketBookingSystem.seat.SeatStatus;
+import MovieTicketBookingSystem.seat.SeatType;
+
+// round trip of a BOOK record with awkward characters through the codec and a journal file
+public class JournalRecordsTest {
+    public static void main(String[] args) throws IOException {
+        System.out.println("=== Journal Records Round Trip Test ===");
+
+        Map<String, Seat> seats = new LinkedHashMap<>();
+        for (String seatId : List.of("A,1", "A\\2", "A\r3")) {
+            seats.put(seatId, new Seat(seatId, 1, seats.size() + 1, SeatType.NORMAL, 10, SeatStatus.AVAILABLE));
+        }
+        Show show = new Show("SHOW\r1", new Movie("M1", "Movie", "", 120), new Theater("T1", "Theater", "", new ArrayList<>()),
+                LocalDateTime.now(), LocalDateTime.now().plusHours(2), seats);
+        User user = new User("U1", "Name\rwith\ncontrol\tchars\\", "user@example.com");
+        Booking booking = new Booking(42L, user, show, new ArrayList<>(seats.values()), 3000L, BookingStatus.PENDING);
+        String[] expected = {JournalRecords.BOOK, "42", "SHOW\r1", "U1", "Name\rwith\ncontrol\tchars\\", "user@example.com", "3000"};
+
+        String[] record = JournalRecords.book(booking);
+        String line = TabSeparatedCodec.INSTANCE.encode(record);
+        check("encoded record has no line breaks", line.indexOf('\r') < 0 && line.indexOf('\n') < 0);
+        checkFields("decoded", TabSeparatedCodec.INSTANCE.decode(line), expected);
+
+        Path directory = Files.createTempDirectory("journal-records-test");
+        try (WriteAheadJournal<String[]> journal = new WriteAheadJournal<>(directory, "test", TabSeparatedCodec.INSTANCE)) {
+            journal.append(record).join();
+        }
+        List<String[]> recovered = new ArrayList<>();
+        try (WriteAheadJournal<String[]> journal = new WriteAheadJournal<>(directory, "test", TabSeparatedCodec.INSTANCE)) {
+            journal.recover(recovered::add);
+        }
+        check("one record recovered", recovered.size() == 1);
+        checkFields("recovered", recovered.get(0), expected);
+
+        System.out.println("\n=== Journal records test completed successfully! ===");
+    }
+
+    private static void checkFields(String what, String[] fields, String[] expected) {
+        check(what + " fields", Arrays.equals(Arrays.copyOf(fields, expected.length), expected));
+        check(what + " seat ids", JournalRecords.splitSeatIds(fields[expected.length]).equals(List.of("A,1", "A\\2", "A\r3")));
+    }
+
+    private static void check(String what, boolean ok) {
+        System.out.println(what + ": " + (ok ? "ok" : "FAILED"));
+        if (!ok) {
+            throw new IllegalStateException("check failed: " + what);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package MovieTicketBookingSystem.pricing;
+
+import MovieTicketBookingSystem.seat.SeatType;
+
+/**
+ * Default rules: early bird discount more than a week out, surcharges as the show
+ * approaches, and steps up as a seat type fills. Premium seats react more to demand.
+ */
+public class DemandPricingPolicy implements PricingPolicy {
+    private static final long[] TIME_FACTORS = {9000, 10000, 11000, 12000};
+
+    @Override
+    public long multiplierBasisPoints(SeatType seatType, int occupancyBucket, int timeBucket) {
+        double occupancy = (double) occupancyBucket / OCCUPANCY_BUCKETS;
+        long demandFactor;
+        if (occupancy < 0.5) {
+            demandFactor = 10000;
+        } else if (occupancy < 0.7) {
+            demandFactor = 11000;
+        } else if (occupancy < 0.85) {
+            demandFactor = 12500;
+        } else if (occupancy < 0.95) {
+            demandFactor = 15000;
+        } else {
+            demandFactor = 17500;
+        }
+        if (seatType == SeatType.PREMIUM) {
+            demandFactor = 10000 + (demandFactor - 10000) * 3 / 2;
+        }
+        return demandFactor * TIME_FACTORS[timeBucket] / 10000;
+    }
+}
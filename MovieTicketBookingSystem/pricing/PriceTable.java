@@ -0,0 +1,88 @@
+package MovieTicketBookingSystem.pricing;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import MovieTicketBookingSystem.seat.SeatType;
+
+/**
+ * Precomputed prices of one show in fixed-point cents.
+ *
+ * The policy is evaluated once for every (seat type, occupancy bucket, time bucket).
+ * Claims and releases only move the current occupancy bucket of a seat type, and the
+ * time bucket is refreshed when its precomputed boundary passes, so a quote is an
+ * array lookup and a multiply.
+ */
+public class PriceTable {
+    private final long[] baseCents;
+    private final SeatType[] seatTypes;
+    private final int[] totals;
+    //[type][occupancy bucket][time bucket]
+    private final long[][][] multipliers;
+    private final AtomicIntegerArray occupancyBuckets;
+    private final long[] timeBucketStartMillis;
+    private volatile int timeBucket;
+    private volatile long nextTimeBoundaryMillis;
+
+    /**
+     * baseCents and seatTypes are indexed by seat index; totals and available by SeatType ordinal.
+     */
+    public PriceTable(long[] baseCents, SeatType[] seatTypes, int[] totals, int[] available,
+                      LocalDateTime showStart, PricingPolicy policy) {
+        this.baseCents = baseCents;
+        this.seatTypes = seatTypes;
+        this.totals = totals.clone();
+        SeatType[] types = SeatType.values();
+        int timeBuckets = PricingPolicy.TIME_BUCKET_HOURS.size();
+        this.multipliers = new long[types.length][PricingPolicy.OCCUPANCY_BUCKETS + 1][timeBuckets];
+        for (SeatType type : types) {
+            for (int occupancy = 0; occupancy <= PricingPolicy.OCCUPANCY_BUCKETS; occupancy++) {
+                for (int time = 0; time < timeBuckets; time++) {
+                    multipliers[type.ordinal()][occupancy][time] = policy.multiplierBasisPoints(type, occupancy, time);
+                }
+            }
+        }
+        this.occupancyBuckets = new AtomicIntegerArray(types.length);
+        for (SeatType type : types) {
+            onAvailabilityChanged(type, available[type.ordinal()]);
+        }
+
+        long startMillis = showStart.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        this.timeBucketStartMillis = new long[timeBuckets];
+        for (int i = 0; i < timeBuckets; i++) {
+            long hours = PricingPolicy.TIME_BUCKET_HOURS.get(i);
+            timeBucketStartMillis[i] = hours == Long.MAX_VALUE ? Long.MIN_VALUE : startMillis - hours * 3_600_000L;
+        }
+        refreshTimeBucket(System.currentTimeMillis());
+    }
+
+    // called with the new available count of a seat type after each claim or release
+    public void onAvailabilityChanged(SeatType type, int available) {
+        int total = totals[type.ordinal()];
+        int bucket = total == 0 ? 0 : (total - available) * PricingPolicy.OCCUPANCY_BUCKETS / total;
+        occupancyBuckets.set(type.ordinal(), bucket);
+    }
+
+    public long quoteCents(int seatIndex) {
+        long now = System.currentTimeMillis();
+        if (now >= nextTimeBoundaryMillis) {
+            refreshTimeBucket(now);
+        }
+        int type = seatTypes[seatIndex].ordinal();
+        return baseCents[seatIndex] * multipliers[type][occupancyBuckets.get(type)][timeBucket] / 10000;
+    }
+
+    private void refreshTimeBucket(long now) {
+        int bucket = 0;
+        while (bucket + 1 < timeBucketStartMillis.length && now >= timeBucketStartMillis[bucket + 1]) {
+            bucket++;
+        }
+        timeBucket = bucket;
+        nextTimeBoundaryMillis = bucket + 1 < timeBucketStartMillis.length ? timeBucketStartMillis[bucket + 1] : Long.MAX_VALUE;
+    }
+
+    public static long toCents(double price) {
+        return Math.round(price * 100);
+    }
+}
@@ -0,0 +1,21 @@
+package MovieTicketBookingSystem.pricing;
+
+import java.util.List;
+
+import MovieTicketBookingSystem.seat.SeatType;
+
+/**
+ * Demand pricing rules. Only evaluated when a PriceTable is built, never while quoting.
+ */
+public interface PricingPolicy {
+    int OCCUPANCY_BUCKETS = 20;
+
+    // start of each time bucket, in hours before the show, from the earliest bucket on
+    List<Long> TIME_BUCKET_HOURS = List.of(Long.MAX_VALUE, 24L * 7, 24L, 3L);
+
+    /**
+     * Price multiplier in basis points (10000 = base price) for a seat type when the
+     * type is occupancyBucket/OCCUPANCY_BUCKETS full, in the given time bucket.
+     */
+    long multiplierBasisPoints(SeatType seatType, int occupancyBucket, int timeBucket);
+}
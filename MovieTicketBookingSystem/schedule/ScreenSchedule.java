@@ -0,0 +1,120 @@
+package MovieTicketBookingSystem.schedule;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import MovieTicketBookingSystem.Show;
+
+/**
+ * Shows of one screen keyed by start time. A show occupies the screen from its start
+ * until cleaningBuffer after its end, and occupied intervals never overlap, so the
+ * entries are ordered by both start and end: checking the closest show before and
+ * after a new interval is enough to validate it, in O(log n).
+ */
+public class ScreenSchedule {
+    private final String screenId;
+    private final Duration cleaningBuffer;
+    private final TreeMap<LocalDateTime, Show> showsByStart = new TreeMap<>();
+
+    public ScreenSchedule(String screenId, Duration cleaningBuffer) {
+        this.screenId = screenId;
+        this.cleaningBuffer = cleaningBuffer;
+    }
+
+    public String getScreenId() {
+        return screenId;
+    }
+
+    public Duration getCleaningBuffer() {
+        return cleaningBuffer;
+    }
+
+    /**
+     * Inserts the show unless it overlaps another show of the screen including the
+     * cleaning buffer. Adding a show that is already scheduled succeeds.
+     */
+    public synchronized boolean tryAdd(Show show) {
+        if (!show.getEndTime().isAfter(show.getStartTime())) {
+            throw new IllegalArgumentException("Show " + show.getId() + " ends before it starts");
+        }
+        if (showsByStart.get(show.getStartTime()) == show) {
+            return true;
+        }
+        if (!isFree(show.getStartTime(), show.getEndTime())) {
+            return false;
+        }
+        showsByStart.put(show.getStartTime(), show);
+        return true;
+    }
+
+    public synchronized boolean remove(Show show) {
+        return showsByStart.remove(show.getStartTime(), show);
+    }
+
+    // true if a show running from start to end would not overlap any scheduled show
+    public synchronized boolean isFree(LocalDateTime start, LocalDateTime end) {
+        Map.Entry<LocalDateTime, Show> before = showsByStart.floorEntry(start);
+        if (before != null && occupiedUntil(before.getValue()).isAfter(start)) {
+            return false;
+        }
+        Map.Entry<LocalDateTime, Show> after = showsByStart.ceilingEntry(start);
+        return after == null || !end.plus(cleaningBuffer).isAfter(after.getKey());
+    }
+
+    /**
+     * Gaps between from and to that can hold a show of at least minLength, leaving the
+     * cleaning buffer after the previous show and before the next one.
+     */
+    public synchronized List<TimeSlot> findFreeSlots(LocalDateTime from, LocalDateTime to, Duration minLength) {
+        List<TimeSlot> slots = new ArrayList<>();
+        LocalDateTime cursor = from;
+        Map.Entry<LocalDateTime, Show> before = showsByStart.lowerEntry(from);
+        if (before != null && occupiedUntil(before.getValue()).isAfter(cursor)) {
+            cursor = occupiedUntil(before.getValue());
+        }
+        for (Show show : showsByStart.subMap(from, true, to, false).values()) {
+            LocalDateTime gapEnd = show.getStartTime().minus(cleaningBuffer);
+            addSlot(slots, cursor, gapEnd, minLength);
+            LocalDateTime showFreesAt = occupiedUntil(show);
+            if (showFreesAt.isAfter(cursor)) {
+                cursor = showFreesAt;
+            }
+        }
+        addSlot(slots, cursor, to, minLength);
+        return slots;
+    }
+
+    // earliest slot between from and to for the movie length, or null if the screen is full
+    public TimeSlot findFreeSlot(LocalDateTime from, LocalDateTime to, Duration length) {
+        List<TimeSlot> slots = findFreeSlots(from, to, length);
+        return slots.isEmpty() ? null : slots.get(0);
+    }
+
+    public synchronized List<Show> getShows() {
+        return new ArrayList<>(showsByStart.values());
+    }
+
+    public synchronized List<Show> getShows(LocalDateTime from, LocalDateTime to) {
+        List<Show> result = new ArrayList<>();
+        Map.Entry<LocalDateTime, Show> before = showsByStart.lowerEntry(from);
+        if (before != null && before.getValue().getEndTime().isAfter(from)) {
+            result.add(before.getValue());
+        }
+        result.addAll(showsByStart.subMap(from, true, to, false).values());
+        return result;
+    }
+
+    private LocalDateTime occupiedUntil(Show show) {
+        return show.getEndTime().plus(cleaningBuffer);
+    }
+
+    private static void addSlot(List<TimeSlot> slots, LocalDateTime start, LocalDateTime end, Duration minLength) {
+        if (start.isBefore(end) && Duration.between(start, end).compareTo(minLength) >= 0) {
+            slots.add(new TimeSlot(start, end));
+        }
+    }
+}
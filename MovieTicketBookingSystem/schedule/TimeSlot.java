@@ -0,0 +1,38 @@
+package MovieTicketBookingSystem.schedule;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Free time on a screen: a show may start at or after start and must end by end.
+ */
+public final class TimeSlot {
+    private final LocalDateTime start;
+    private final LocalDateTime end;
+
+    public TimeSlot(LocalDateTime start, LocalDateTime end) {
+        this.start = start;
+        this.end = end;
+    }
+
+    public LocalDateTime getStart() {
+        return start;
+    }
+
+    public LocalDateTime getEnd() {
+        return end;
+    }
+
+    public Duration getDuration() {
+        return Duration.between(start, end);
+    }
+
+    public boolean fits(Duration length) {
+        return getDuration().compareTo(length) >= 0;
+    }
+
+    @Override
+    public String toString() {
+        return start + " - " + end;
+    }
+}
@@ -0,0 +1,113 @@
+package MovieTicketBookingSystem.schedule;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import MovieTicketBookingSystem.Movie;
+import MovieTicketBookingSystem.Show;
+import MovieTicketBookingSystem.Theater;
+import MovieTicketBookingSystem.seat.Seat;
+
+/**
+ * Fills the free time of every screen for a week with back to back shows, rotating
+ * through the movies. Theaters share no state, so they are planned in parallel.
+ */
+public class WeeklyScheduleGenerator {
+    private static final DateTimeFormatter SHOW_ID_TIME = DateTimeFormatter.ofPattern("yyyyMMddHHmm");
+
+    /**
+     * Creates a fresh seat map for every generated show of a screen.
+     */
+    public interface SeatLayout {
+        Map<String, Seat> createSeats(Theater theater, String screenId);
+    }
+
+    private final LocalTime openingTime;
+    private final LocalTime closingTime;
+    private final int startTimeStepMinutes;
+    private final SeatLayout seatLayout;
+
+    /**
+     * closingTime is the latest end of a show; at or before openingTime it is on the next day.
+     * Shows start on multiples of startTimeStepMinutes past the hour.
+     */
+    public WeeklyScheduleGenerator(LocalTime openingTime, LocalTime closingTime, int startTimeStepMinutes, SeatLayout seatLayout) {
+        if (startTimeStepMinutes <= 0 || 60 % startTimeStepMinutes != 0) {
+            throw new IllegalArgumentException("Start time step must divide an hour: " + startTimeStepMinutes);
+        }
+        this.openingTime = openingTime;
+        this.closingTime = closingTime;
+        this.startTimeStepMinutes = startTimeStepMinutes;
+        this.seatLayout = seatLayout;
+    }
+
+    /**
+     * Schedules shows into the theaters' screens for the seven days from weekStart and
+     * returns them; they still have to be registered with the booking system.
+     */
+    public List<Show> generate(List<Theater> theaters, List<Movie> movies, LocalDate weekStart) {
+        if (movies.isEmpty()) {
+            return new ArrayList<>();
+        }
+        List<Theater> snapshot = new ArrayList<>(theaters);
+        return IntStream.range(0, snapshot.size()).parallel()
+                .mapToObj(index -> generate(snapshot.get(index), index, movies, weekStart))
+                .flatMap(List::stream)
+                .collect(Collectors.toList());
+    }
+
+    private List<Show> generate(Theater theater, int theaterIndex, List<Movie> movies, LocalDate weekStart) {
+        List<Show> generated = new ArrayList<>();
+        List<String> screenIds = theater.getScreenIds();
+        for (int day = 0; day < 7; day++) {
+            LocalDateTime open = weekStart.plusDays(day).atTime(openingTime);
+            LocalDateTime close = weekStart.plusDays(closingTime.isAfter(openingTime) ? day : day + 1).atTime(closingTime);
+            for (int screen = 0; screen < screenIds.size(); screen++) {
+                ScreenSchedule schedule = theater.getScreenSchedule(screenIds.get(screen));
+                int movieIndex = theaterIndex + screen + day;
+                for (TimeSlot slot : schedule.findFreeSlots(open, close, Duration.ZERO)) {
+                    LocalDateTime start = roundUp(slot.getStart());
+                    while (true) {
+                        //next movie in the rotation that still fits before the slot ends
+                        Movie movie = null;
+                        for (int tried = 0; tried < movies.size() && movie == null; tried++, movieIndex++) {
+                            Movie candidate = movies.get(movieIndex % movies.size());
+                            if (!start.plusMinutes(candidate.getDurationInMinutes()).isAfter(slot.getEnd())) {
+                                movie = candidate;
+                            }
+                        }
+                        if (movie == null) {
+                            break;
+                        }
+                        LocalDateTime end = start.plusMinutes(movie.getDurationInMinutes());
+                        String showId = theater.getId() + "-" + schedule.getScreenId() + "-" + start.format(SHOW_ID_TIME);
+                        Show show = new Show(showId, movie, theater, schedule.getScreenId(), start, end,
+                                seatLayout.createSeats(theater, schedule.getScreenId()));
+                        if (theater.addShow(show)) {
+                            generated.add(show);
+                        }
+                        start = roundUp(end.plus(schedule.getCleaningBuffer()));
+                    }
+                }
+            }
+        }
+        return generated;
+    }
+
+    private LocalDateTime roundUp(LocalDateTime time) {
+        LocalDateTime truncated = time.withSecond(0).withNano(0);
+        if (truncated.isBefore(time)) {
+            truncated = truncated.plusMinutes(1);
+        }
+        int remainder = truncated.getMinute() % startTimeStepMinutes;
+        return remainder == 0 ? truncated : truncated.plusMinutes(startTimeStepMinutes - remainder);
+    }
+}
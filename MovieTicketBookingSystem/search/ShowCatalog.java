@@ -0,0 +1,88 @@
+package MovieTicketBookingSystem.search;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+import MovieTicketBookingSystem.Show;
+
+/**
+ * Secondary indexes over all shows, each ordered by start time, so listing queries
+ * are a range scan of a skip list instead of a scan of every show.
+ * Range bounds are [from, to); a null bound means open ended.
+ */
+public class ShowCatalog {
+    private final NavigableMap<ShowKey, Show> showsByStartTime = new ConcurrentSkipListMap<>();
+    private final Map<String, NavigableMap<ShowKey, Show>> showsByMovie = new ConcurrentHashMap<>();
+    private final Map<String, NavigableMap<ShowKey, Show>> showsByTheater = new ConcurrentHashMap<>();
+    private final Map<String, NavigableMap<ShowKey, Show>> showsByMovieAndTheater = new ConcurrentHashMap<>();
+    private final Map<String, Set<String>> theaterIdsByLocation = new ConcurrentHashMap<>();
+
+    public void add(Show show) {
+        ShowKey key = ShowKey.of(show);
+        String movieId = show.getMovie().getId();
+        String theaterId = show.getTheater().getId();
+        showsByStartTime.put(key, show);
+        showsByMovie.computeIfAbsent(movieId, id -> new ConcurrentSkipListMap<>()).put(key, show);
+        showsByTheater.computeIfAbsent(theaterId, id -> new ConcurrentSkipListMap<>()).put(key, show);
+        showsByMovieAndTheater.computeIfAbsent(movieTheaterKey(movieId, theaterId), id -> new ConcurrentSkipListMap<>()).put(key, show);
+        theaterIdsByLocation.computeIfAbsent(show.getTheater().getLocation(), location -> ConcurrentHashMap.newKeySet()).add(theaterId);
+    }
+
+    public List<Show> findShows(LocalDateTime from, LocalDateTime to) {
+        return new ArrayList<>(range(showsByStartTime, from, to).values());
+    }
+
+    public List<Show> findShowsByMovie(String movieId, LocalDateTime from, LocalDateTime to) {
+        return rangeOf(showsByMovie.get(movieId), from, to);
+    }
+
+    public List<Show> findShowsByTheater(String theaterId, LocalDateTime from, LocalDateTime to) {
+        return rangeOf(showsByTheater.get(theaterId), from, to);
+    }
+
+    // one range scan per theater at the location, merged back into start time order
+    public List<Show> findShows(String movieId, String location, LocalDateTime from, LocalDateTime to) {
+        Set<String> theaterIds = theaterIdsByLocation.get(location);
+        if (theaterIds == null) {
+            return Collections.emptyList();
+        }
+        NavigableMap<ShowKey, Show> merged = new TreeMap<>();
+        for (String theaterId : theaterIds) {
+            NavigableMap<ShowKey, Show> shows = showsByMovieAndTheater.get(movieTheaterKey(movieId, theaterId));
+            if (shows != null) {
+                merged.putAll(range(shows, from, to));
+            }
+        }
+        return new ArrayList<>(merged.values());
+    }
+
+    private static List<Show> rangeOf(NavigableMap<ShowKey, Show> shows, LocalDateTime from, LocalDateTime to) {
+        if (shows == null) {
+            return Collections.emptyList();
+        }
+        return new ArrayList<>(range(shows, from, to).values());
+    }
+
+    private static NavigableMap<ShowKey, Show> range(NavigableMap<ShowKey, Show> shows, LocalDateTime from, LocalDateTime to) {
+        NavigableMap<ShowKey, Show> result = shows;
+        if (from != null) {
+            result = result.tailMap(ShowKey.lowerBound(from), true);
+        }
+        if (to != null) {
+            result = result.headMap(ShowKey.lowerBound(to), false);
+        }
+        return result;
+    }
+
+    private static String movieTheaterKey(String movieId, String theaterId) {
+        return movieId + '\u0000' + theaterId;
+    }
+}
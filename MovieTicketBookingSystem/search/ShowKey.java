@@ -0,0 +1,52 @@
+package MovieTicketBookingSystem.search;
+
+import java.time.LocalDateTime;
+
+import MovieTicketBookingSystem.Show;
+
+/**
+ * Sort key of the show indexes: start time first, show id to tell apart shows
+ * that start at the same time.
+ */
+public final class ShowKey implements Comparable<ShowKey> {
+    private final LocalDateTime startTime;
+    private final String showId;
+
+    private ShowKey(LocalDateTime startTime, String showId) {
+        this.startTime = startTime;
+        this.showId = showId;
+    }
+
+    public static ShowKey of(Show show) {
+        return new ShowKey(show.getStartTime(), show.getId());
+    }
+
+    // sorts before every show starting at the given time, used as a range bound
+    public static ShowKey lowerBound(LocalDateTime startTime) {
+        return new ShowKey(startTime, "");
+    }
+
+    public LocalDateTime getStartTime() {
+        return startTime;
+    }
+
+    @Override
+    public int compareTo(ShowKey other) {
+        int byTime = startTime.compareTo(other.startTime);
+        return byTime != 0 ? byTime : showId.compareTo(other.showId);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (!(o instanceof ShowKey)) {
+            return false;
+        }
+        ShowKey other = (ShowKey) o;
+        return startTime.equals(other.startTime) && showId.equals(other.showId);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * startTime.hashCode() + showId.hashCode();
+    }
+}
@@ -0,0 +1,11 @@
+package MovieTicketBookingSystem.seat;
+
+/**
+ * Scores rows for best-available allocation; rows with a lower score are offered first.
+ */
+public interface RowPreference {
+    int score(int row, int totalRows);
+
+    // middle-to-back rows first, rows closest to 60% of the depth of the auditorium win
+    RowPreference CENTER_BACK = (row, totalRows) -> Math.abs(row * 10 - totalRows * 6);
+}
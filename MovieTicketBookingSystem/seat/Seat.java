@@ -6,7 +6,7 @@ public class Seat {
     private final int column;
     private final SeatType type;
     private final double price;
-    private SeatStatus status;
+    private volatile SeatStatus status;
 
     public Seat(String id, int row, int column, SeatType type, double price, SeatStatus status) {
         this.id = id;
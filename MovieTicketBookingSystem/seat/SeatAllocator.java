@@ -0,0 +1,300 @@
+package MovieTicketBookingSystem.seat;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Finds the best N adjacent free seats of a SeatType in logarithmic time.
+ *
+ * Each row keeps a segment tree of free runs per seat type (longest run, free prefix,
+ * free suffix), and each seat type keeps a max tree over its rows in preference order.
+ * Finding a block is a few descents of these trees. The SeatBitmap stays the source of
+ * truth: bookings made elsewhere only mark seats dirty, and the dirty seats are
+ * reindexed from the bitmap before the next allocation.
+ */
+public class SeatAllocator {
+    private final SeatBitmap bitmap;
+    private final Seat[] seatsByIndex;
+    private final Map<SeatType, TypeIndex> indexes = new EnumMap<>(SeatType.class);
+    private final AtomicLongArray dirty;
+    private volatile boolean anyDirty;
+
+    public SeatAllocator(SeatBitmap bitmap, Seat[] seatsByIndex, RowPreference preference) {
+        this.bitmap = bitmap;
+        this.seatsByIndex = seatsByIndex;
+        this.dirty = new AtomicLongArray((seatsByIndex.length + 63) >>> 6);
+        for (SeatType type : SeatType.values()) {
+            TypeIndex index = buildIndex(type, preference);
+            if (index != null) {
+                indexes.put(type, index);
+            }
+        }
+    }
+
+    /**
+     * Claims the best block of count adjacent seats of the given type, or returns null
+     * when no row has such a block available.
+     */
+    public synchronized List<Seat> allocate(int count, SeatType type) {
+        TypeIndex index = indexes.get(type);
+        if (index == null || count <= 0 || count > bitmap.getColumns()) {
+            return null;
+        }
+        while (true) {
+            reindexDirtySeats();
+            int rowSlot = index.rowTree.firstAtLeast(count);
+            if (rowSlot < 0) {
+                return null;
+            }
+            RunTree runTree = index.rowRuns[rowSlot];
+            int row = index.rows[rowSlot];
+            int start = centeredStart(runTree, count);
+            int[] claim = new int[count];
+            for (int i = 0; i < count; i++) {
+                claim[i] = bitmap.indexOf(row, start + i + 1);
+            }
+            if (bitmap.tryClaimAll(claim)) {
+                List<Seat> seats = new ArrayList<>(count);
+                for (int seatIndex : claim) {
+                    runTree.set(seatIndex % bitmap.getColumns(), false);
+                    seats.add(seatsByIndex[seatIndex]);
+                }
+                index.rowTree.set(rowSlot, runTree.best());
+                return seats;
+            }
+            //lost a race with a booking that is not reindexed yet: take its seats out of the tree
+            //now, so every retry sees fewer free seats and the loop ends once no block fits
+            for (int seatIndex : claim) {
+                if (bitmap.isTaken(seatIndex)) {
+                    runTree.set(seatIndex % bitmap.getColumns(), false);
+                }
+            }
+            index.rowTree.set(rowSlot, runTree.best());
+        }
+    }
+
+    // called after seats were claimed or released outside of the allocator
+    public void markDirty(int seatIndex) {
+        int word = seatIndex >>> 6;
+        long mask = 1L << seatIndex;
+        while (true) {
+            long current = dirty.get(word);
+            if ((current & mask) != 0 || dirty.compareAndSet(word, current, current | mask)) {
+                break;
+            }
+        }
+        anyDirty = true;
+    }
+
+    private void reindexDirtySeats() {
+        if (!anyDirty) {
+            return;
+        }
+        anyDirty = false;
+        int columns = bitmap.getColumns();
+        for (int word = 0; word < dirty.length(); word++) {
+            long bits = dirty.getAndSet(word, 0L);
+            while (bits != 0) {
+                int seatIndex = (word << 6) + Long.numberOfTrailingZeros(bits);
+                bits &= bits - 1;
+                Seat seat = seatsByIndex[seatIndex];
+                TypeIndex index = seat == null ? null : indexes.get(seat.getType());
+                if (index == null) {
+                    continue;
+                }
+                int rowSlot = index.slotOfRow[seat.getRow() - 1];
+                RunTree runTree = index.rowRuns[rowSlot];
+                runTree.set(seatIndex % columns, !bitmap.isTaken(seatIndex));
+                index.rowTree.set(rowSlot, runTree.best());
+            }
+        }
+    }
+
+    // start of the free block of count seats nearest the middle of the row, two tree descents
+    private int centeredStart(RunTree runTree, int count) {
+        int ideal = (bitmap.getColumns() - count) / 2;
+        int atOrBefore = runTree.lastFitUpTo(ideal, count);
+        int atOrAfter = runTree.firstFitFrom(ideal, count);
+        if (atOrAfter < 0 || (atOrBefore >= 0 && ideal - atOrBefore <= atOrAfter - ideal)) {
+            return atOrBefore;
+        }
+        return atOrAfter;
+    }
+
+    private TypeIndex buildIndex(SeatType type, RowPreference preference) {
+        int rowCount = bitmap.getRows();
+        int columns = bitmap.getColumns();
+        List<Integer> rows = new ArrayList<>();
+        for (int row = 1; row <= rowCount; row++) {
+            for (int column = 1; column <= columns; column++) {
+                Seat seat = seatsByIndex[bitmap.indexOf(row, column)];
+                if (seat != null && seat.getType() == type) {
+                    rows.add(row);
+                    break;
+                }
+            }
+        }
+        if (rows.isEmpty()) {
+            return null;
+        }
+        rows.sort(Comparator.comparingInt((Integer row) -> preference.score(row, rowCount)).thenComparingInt(row -> row));
+
+        TypeIndex index = new TypeIndex(rows.size(), rowCount);
+        for (int slot = 0; slot < rows.size(); slot++) {
+            int row = rows.get(slot);
+            RunTree runTree = new RunTree(columns);
+            for (int column = 1; column <= columns; column++) {
+                int seatIndex = bitmap.indexOf(row, column);
+                Seat seat = seatsByIndex[seatIndex];
+                runTree.set(column - 1, seat != null && seat.getType() == type && !bitmap.isTaken(seatIndex));
+            }
+            index.rows[slot] = row;
+            index.slotOfRow[row - 1] = slot;
+            index.rowRuns[slot] = runTree;
+            index.rowTree.set(slot, runTree.best());
+        }
+        return index;
+    }
+
+    private static final class TypeIndex {
+        final int[] rows;
+        final int[] slotOfRow;
+        final RunTree[] rowRuns;
+        final MaxTree rowTree;
+
+        TypeIndex(int size, int totalRows) {
+            rows = new int[size];
+            slotOfRow = new int[totalRows];
+            rowRuns = new RunTree[size];
+            rowTree = new MaxTree(size);
+        }
+    }
+
+    // segment tree over one row: longest free run, free prefix and free suffix per node
+    private static final class RunTree {
+        private final int size;
+        private final int[] prefix;
+        private final int[] suffix;
+        private final int[] best;
+
+        RunTree(int columns) {
+            int n = 1;
+            while (n < columns) {
+                n <<= 1;
+            }
+            size = n;
+            prefix = new int[2 * n];
+            suffix = new int[2 * n];
+            best = new int[2 * n];
+        }
+
+        int best() {
+            return best[1];
+        }
+
+        void set(int position, boolean free) {
+            int node = size + position;
+            int value = free ? 1 : 0;
+            prefix[node] = suffix[node] = best[node] = value;
+            int length = 1;
+            for (node >>= 1; node >= 1; node >>= 1) {
+                int left = node << 1;
+                int right = left + 1;
+                prefix[node] = prefix[left] == length ? length + prefix[right] : prefix[left];
+                suffix[node] = suffix[right] == length ? length + suffix[left] : suffix[right];
+                best[node] = Math.max(Math.max(best[left], best[right]), suffix[left] + prefix[right]);
+                length <<= 1;
+            }
+        }
+
+        // leftmost start at or after from of count free seats, or -1
+        int firstFitFrom(int from, int count) {
+            return firstFit(1, 0, size, from, count, new int[1]);
+        }
+
+        // rightmost start at or before to of count free seats, or -1
+        int lastFitUpTo(int to, int count) {
+            return lastFit(1, 0, size, to + count - 1, count, new int[1]);
+        }
+
+        // visits the nodes right of from in order; run[0] is the free run (from from on) just before the node
+        private int firstFit(int node, int nodeFrom, int length, int from, int count, int[] run) {
+            if (nodeFrom + length <= from) {
+                return -1;
+            }
+            if (nodeFrom >= from) {
+                if (run[0] + prefix[node] >= count) {
+                    return nodeFrom - run[0];
+                }
+                if (best[node] < count) {
+                    run[0] = prefix[node] == length ? run[0] + length : suffix[node];
+                    return -1;
+                }
+            }
+            int half = length >> 1;
+            int found = firstFit(node << 1, nodeFrom, half, from, count, run);
+            return found >= 0 ? found : firstFit((node << 1) + 1, nodeFrom + half, half, from, count, run);
+        }
+
+        // mirror of firstFit for blocks ending at or before end; run[0] is the free run just after the node
+        private int lastFit(int node, int nodeFrom, int length, int end, int count, int[] run) {
+            if (nodeFrom > end) {
+                return -1;
+            }
+            int nodeEnd = nodeFrom + length - 1;
+            if (nodeEnd <= end) {
+                if (run[0] + suffix[node] >= count) {
+                    return nodeEnd + run[0] - count + 1;
+                }
+                if (best[node] < count) {
+                    run[0] = suffix[node] == length ? run[0] + length : prefix[node];
+                    return -1;
+                }
+            }
+            int half = length >> 1;
+            int found = lastFit((node << 1) + 1, nodeFrom + half, half, end, count, run);
+            return found >= 0 ? found : lastFit(node << 1, nodeFrom, half, end, count, run);
+        }
+    }
+
+    // max tree over rows in preference order, finds the most preferred row with a long enough run
+    private static final class MaxTree {
+        private final int size;
+        private final int[] max;
+
+        MaxTree(int leaves) {
+            int n = 1;
+            while (n < leaves) {
+                n <<= 1;
+            }
+            size = n;
+            max = new int[2 * n];
+        }
+
+        void set(int leaf, int value) {
+            int node = size + leaf;
+            max[node] = value;
+            for (node >>= 1; node >= 1; node >>= 1) {
+                max[node] = Math.max(max[node << 1], max[(node << 1) + 1]);
+            }
+        }
+
+        int firstAtLeast(int value) {
+            if (max[1] < value) {
+                return -1;
+            }
+            int node = 1;
+            while (node < size) {
+                node <<= 1;
+                if (max[node] < value) {
+                    node++;
+                }
+            }
+            return node - size;
+        }
+    }
+}
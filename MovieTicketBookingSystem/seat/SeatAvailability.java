@@ -0,0 +1,130 @@
+package MovieTicketBookingSystem.seat;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * Available seat counters per SeatType, updated on every claim and release so
+ * "N seats left" never walks the seats. Readers get an immutable snapshot that is
+ * rebuilt only when the version moved since the last one.
+ *
+ * The version is a seqlock: a writer moves it from even to odd with a CAS, applies a
+ * whole claim or release and then makes it even again, and snapshot() retries until it
+ * read the counters under one stable, even version. So equal versions mean equal counts
+ * and a half-applied multi-seat claim is never visible. Writers take no monitor; the
+ * CAS also orders them, so whatever they update inside the write section (the show's
+ * price buckets) ends up matching the final counts.
+ */
+public class SeatAvailability {
+    private final int[] totals;
+    private final AtomicIntegerArray available;
+    private final AtomicLong version = new AtomicLong();
+    private volatile Snapshot cachedSnapshot;
+
+    public SeatAvailability(int[] totals, int[] available) {
+        this.totals = totals.clone();
+        this.available = new AtomicIntegerArray(available);
+    }
+
+    // onChanged gets each changed type with its new available count, inside the write section
+    public void onClaimed(List<SeatType> types, ObjIntConsumer<SeatType> onChanged) {
+        apply(types, -1, onChanged);
+    }
+
+    public void onReleased(List<SeatType> types, ObjIntConsumer<SeatType> onChanged) {
+        apply(types, 1, onChanged);
+    }
+
+    private void apply(List<SeatType> types, int delta, ObjIntConsumer<SeatType> onChanged) {
+        long start = beginWrite();
+        try {
+            for (SeatType type : types) {
+                available.addAndGet(type.ordinal(), delta);
+            }
+            for (SeatType type : types) {
+                onChanged.accept(type, available.get(type.ordinal()));
+            }
+        } finally {
+            version.set(start + 2);
+        }
+    }
+
+    // odd version = a write is in progress, the CAS admits one writer at a time
+    private long beginWrite() {
+        while (true) {
+            long current = version.get();
+            if ((current & 1) == 0 && version.compareAndSet(current, current + 1)) {
+                return current;
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    public Snapshot snapshot() {
+        while (true) {
+            long currentVersion = version.get();
+            Snapshot snapshot = cachedSnapshot;
+            if (snapshot != null && snapshot.getVersion() == currentVersion) {
+                return snapshot;
+            }
+            if ((currentVersion & 1) != 0) {
+                Thread.onSpinWait();
+                continue;
+            }
+            int[] counts = readCounts();
+            if (version.get() != currentVersion) {
+                continue;
+            }
+            snapshot = new Snapshot(currentVersion, totals, counts);
+            cachedSnapshot = snapshot;
+            return snapshot;
+        }
+    }
+
+    private int[] readCounts() {
+        int[] counts = new int[totals.length];
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = available.get(i);
+        }
+        return counts;
+    }
+
+    public static final class Snapshot {
+        private final long version;
+        private final int[] totals;
+        private final int[] available;
+
+        private Snapshot(long version, int[] totals, int[] available) {
+            this.version = version;
+            this.totals = totals;
+            this.available = available;
+        }
+
+        // increases with every seat change, equal versions mean equal counts
+        public long getVersion() {
+            return version;
+        }
+
+        public int getAvailable(SeatType type) {
+            return available[type.ordinal()];
+        }
+
+        public int getTotal(SeatType type) {
+            return totals[type.ordinal()];
+        }
+
+        public int getTotalAvailable() {
+            int sum = 0;
+            for (int count : available) {
+                sum += count;
+            }
+            return sum;
+        }
+
+        public boolean isSoldOut() {
+            return getTotalAvailable() == 0;
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package MovieTicketBookingSystem.seat;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * One bit per seat (1 = taken), packed 64 seats per long and indexed by row/column.
+ * Claims are CAS on a single word, so checks and bookings never block and a
+ * 1000-seat auditorium fits in 16 longs.
+ */
+public class SeatBitmap {
+    private final int rows;
+    private final int columns;
+    private final AtomicLongArray words;
+
+    public SeatBitmap(int rows, int columns) {
+        this.rows = rows;
+        this.columns = columns;
+        this.words = new AtomicLongArray((rows * columns + 63) >>> 6);
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getColumns() {
+        return columns;
+    }
+
+    // rows and columns are 1-based like Seat, returns -1 when outside the auditorium
+    public int indexOf(int row, int column) {
+        if (row < 1 || row > rows || column < 1 || column > columns) {
+            return -1;
+        }
+        return (row - 1) * columns + (column - 1);
+    }
+
+    public boolean isTaken(int index) {
+        return (words.get(index >>> 6) & (1L << index)) != 0;
+    }
+
+    public boolean tryClaim(int index) {
+        int word = index >>> 6;
+        long mask = 1L << index;
+        while (true) {
+            long current = words.get(word);
+            if ((current & mask) != 0) {
+                return false;
+            }
+            if (words.compareAndSet(word, current, current | mask)) {
+                return true;
+            }
+        }
+    }
+
+    public void release(int index) {
+        int word = index >>> 6;
+        long mask = 1L << index;
+        while (true) {
+            long current = words.get(word);
+            if (words.compareAndSet(word, current, current & ~mask)) {
+                return;
+            }
+        }
+    }
+
+    // all-or-nothing: on the first seat already taken the seats claimed so far are rolled back.
+    // Claiming in ascending order means two overlapping requests cannot keep rolling each other back.
+    public boolean tryClaimAll(int[] indexes) {
+        int[] ordered = Arrays.stream(indexes).sorted().distinct().toArray();
+        for (int i = 0; i < ordered.length; i++) {
+            if (!tryClaim(ordered[i])) {
+                for (int j = 0; j < i; j++) {
+                    release(ordered[j]);
+                }
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public void releaseAll(int[] indexes) {
+        for (int index : indexes) {
+            release(index);
+        }
+    }
+}
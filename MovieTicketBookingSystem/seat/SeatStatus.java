@@ -2,5 +2,6 @@ package MovieTicketBookingSystem.seat;
 
 public enum SeatStatus {
     AVAILABLE,
+    HELD,
     BOOKED
 }
@@ -0,0 +1,158 @@
+package MovieTicketBookingSystem.shard;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import Journal.TabSeparatedCodec;
+import MovieTicketBookingSystem.BookingEngine;
+import MovieTicketBookingSystem.Show;
+import MovieTicketBookingSystem.User;
+import MovieTicketBookingSystem.booking.Booking;
+import MovieTicketBookingSystem.booking.BookingIdGenerator;
+import MovieTicketBookingSystem.booking.BookingStatus;
+import MovieTicketBookingSystem.journal.JournalRecords;
+import MovieTicketBookingSystem.seat.Seat;
+import MovieTicketBookingSystem.seat.SeatType;
+
+/**
+ * Client side of a shard running in another JVM behind a ShardServer.
+ * Connections are pooled and each carries one request at a time.
+ * The returned Booking refers to this JVM's copy of the Show; seat state lives on the shard.
+ */
+public class RemoteShard implements BookingEngine, AutoCloseable {
+    private final int port;
+    private final Queue<Connection> idleConnections = new ConcurrentLinkedQueue<>();
+    //asked from the shard on first use, -1 until then
+    private volatile int nodeId = -1;
+
+    public RemoteShard(int port) {
+        this.port = port;
+    }
+
+    // nothing to keep here; the show must be added to the engine behind the ShardServer
+    @Override
+    public void addShow(Show show) {
+    }
+
+    @Override
+    public Booking bookTickets(User user, Show show, List<Seat> selectedSeats) {
+        String[] response = call("BOOK", show.getId(), user.getId(), user.getName(), user.getEmail(),
+                JournalRecords.joinSeatIds(selectedSeats));
+        if (!response[0].equals("OK")) {
+            return null;
+        }
+        return new Booking(BookingIdGenerator.parse(response[1]), user, show, selectedSeats, Long.parseLong(response[2]), BookingStatus.PENDING);
+    }
+
+    @Override
+    public Booking bookBestAvailable(User user, Show show, int count, SeatType seatType) {
+        String[] response = call("BEST", show.getId(), user.getId(), user.getName(), user.getEmail(),
+                Integer.toString(count), seatType.name());
+        if (!response[0].equals("OK")) {
+            return null;
+        }
+        List<Seat> seats = new ArrayList<>();
+        for (String seatId : JournalRecords.splitSeatIds(response[3])) {
+            seats.add(show.getSeats().get(seatId));
+        }
+        return new Booking(BookingIdGenerator.parse(response[1]), user, show, seats, Long.parseLong(response[2]), BookingStatus.PENDING);
+    }
+
+    @Override
+    public void confirmBooking(String bookingId) {
+        call("CONFIRM", bookingId);
+    }
+
+    @Override
+    public void cancelBooking(String bookingId) {
+        call("CANCEL", bookingId);
+    }
+
+    @Override
+    public int getNodeId() {
+        int id = nodeId;
+        if (id < 0) {
+            id = Integer.parseInt(call("NODE")[1]);
+            nodeId = id;
+        }
+        return id;
+    }
+
+    private String[] call(String... fields) {
+        StringBuilder request = new StringBuilder();
+        for (String field : fields) {
+            if (request.length() > 0) {
+                request.append('\t');
+            }
+            request.append(TabSeparatedCodec.escape(field));
+        }
+        Connection connection = idleConnections.poll();
+        try {
+            if (connection == null) {
+                connection = new Connection(port);
+            }
+            String[] response = TabSeparatedCodec.split(connection.send(request.toString()));
+            idleConnections.add(connection);
+            if (response[0].equals("ERROR")) {
+                throw new IllegalStateException("shard error: " + response[1]);
+            }
+            return response;
+        } catch (IOException e) {
+            if (connection != null) {
+                connection.close();
+            }
+            throw new UncheckedIOException("shard on port " + port + " unavailable", e);
+        }
+    }
+
+    @Override
+    public void close() {
+        Connection connection;
+        while ((connection = idleConnections.poll()) != null) {
+            connection.close();
+        }
+    }
+
+    private static final class Connection {
+        private final Socket socket;
+        private final BufferedReader in;
+        private final BufferedWriter out;
+
+        Connection(int port) throws IOException {
+            socket = new Socket(InetAddress.getLoopbackAddress(), port);
+            socket.setTcpNoDelay(true);
+            in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            out = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8));
+        }
+
+        String send(String request) throws IOException {
+            out.write(request);
+            out.write('\n');
+            out.flush();
+            String response = in.readLine();
+            if (response == null) {
+                throw new IOException("connection closed by shard");
+            }
+            return response;
+        }
+
+        void close() {
+            try {
+                socket.close();
+            } catch (IOException e) {
+                //already broken
+            }
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package MovieTicketBookingSystem.shard;
+
+import java.util.List;
+
+import MovieTicketBookingSystem.BookingEngine;
+import MovieTicketBookingSystem.Show;
+import MovieTicketBookingSystem.User;
+import MovieTicketBookingSystem.booking.Booking;
+import MovieTicketBookingSystem.booking.BookingIdGenerator;
+import MovieTicketBookingSystem.seat.Seat;
+import MovieTicketBookingSystem.seat.SeatType;
+
+/**
+ * Partitions shows by id across N engines and forwards each call to the owning one.
+ * A show and all of its bookings live on a single shard, so a booking never needs
+ * cross-shard coordination.
+ *
+ * Booking ids carry the node id of the engine that made them, so confirm and cancel are
+ * routed by the id alone and the router keeps no per-booking state. The shards must
+ * therefore have distinct node ids.
+ */
+public class ShardRouter implements BookingEngine {
+    private final List<BookingEngine> shards;
+
+    public ShardRouter(List<BookingEngine> shards) {
+        if (shards.isEmpty()) {
+            throw new IllegalArgumentException("at least one shard is required");
+        }
+        this.shards = List.copyOf(shards);
+    }
+
+    public BookingEngine shardFor(String showId) {
+        return shards.get(Math.floorMod(showId.hashCode(), shards.size()));
+    }
+
+    // the shard that made the booking, or null if no shard has its node id
+    public BookingEngine ownerOf(String bookingId) {
+        int nodeId = BookingIdGenerator.nodeOf(BookingIdGenerator.parse(bookingId));
+        for (BookingEngine shard : shards) {
+            if (shard.getNodeId() == nodeId) {
+                return shard;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public void addShow(Show show) {
+        shardFor(show.getId()).addShow(show);
+    }
+
+    @Override
+    public Booking bookTickets(User user, Show show, List<Seat> selectedSeats) {
+        return shardFor(show.getId()).bookTickets(user, show, selectedSeats);
+    }
+
+    @Override
+    public Booking bookBestAvailable(User user, Show show, int count, SeatType seatType) {
+        return shardFor(show.getId()).bookBestAvailable(user, show, count, seatType);
+    }
+
+    // unknown bookings are a no-op, as on a single engine
+    @Override
+    public void confirmBooking(String bookingId) {
+        BookingEngine owner = ownerOf(bookingId);
+        if (owner != null) {
+            owner.confirmBooking(bookingId);
+        }
+    }
+
+    @Override
+    public void cancelBooking(String bookingId) {
+        BookingEngine owner = ownerOf(bookingId);
+        if (owner != null) {
+            owner.cancelBooking(bookingId);
+        }
+    }
+
+    // a router mints no ids of its own
+    @Override
+    public int getNodeId() {
+        return -1;
+    }
+}
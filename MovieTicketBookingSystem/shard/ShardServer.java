@@ -0,0 +1,145 @@
+package MovieTicketBookingSystem.shard;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import Journal.TabSeparatedCodec;
+import MovieTicketBookingSystem.MovieTicketBookingSystem;
+import MovieTicketBookingSystem.Show;
+import MovieTicketBookingSystem.User;
+import MovieTicketBookingSystem.booking.Booking;
+import MovieTicketBookingSystem.journal.JournalRecords;
+import MovieTicketBookingSystem.seat.Seat;
+import MovieTicketBookingSystem.seat.SeatType;
+
+/**
+ * Serves one engine over a local socket for RemoteShard clients in other JVMs.
+ * The shows of this shard must be added to the engine on this side.
+ *
+ * Line protocol, tab separated fields (see RemoteShard):
+ *   BOOK showId userId userName userEmail seatIds   -> OK bookingId totalPriceCents | NONE
+ *   BEST showId userId userName userEmail count type -> OK bookingId totalPriceCents seatIds | NONE
+ *   CONFIRM bookingId / CANCEL bookingId            -> OK
+ */
+public class ShardServer implements AutoCloseable {
+    private final MovieTicketBookingSystem engine;
+    private final ServerSocket serverSocket;
+    private final ExecutorService connections = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "shard-connection");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public ShardServer(MovieTicketBookingSystem engine, int port) throws IOException {
+        this.engine = engine;
+        this.serverSocket = new ServerSocket(port, 128, InetAddress.getLoopbackAddress());
+    }
+
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    public void start() {
+        Thread acceptor = new Thread(this::acceptLoop, "shard-server-" + getPort());
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    private void acceptLoop() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                socket.setTcpNoDelay(true);
+                connections.execute(() -> serve(socket));
+            } catch (IOException e) {
+                if (!serverSocket.isClosed()) {
+                    System.err.println("shard server accept failed: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    private void serve(Socket socket) {
+        try (socket;
+             BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+             BufferedWriter out = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                String response;
+                try {
+                    response = handle(TabSeparatedCodec.split(line));
+                } catch (RuntimeException e) {
+                    response = "ERROR\t" + TabSeparatedCodec.escape(String.valueOf(e.getMessage()));
+                }
+                out.write(response);
+                out.write('\n');
+                out.flush();
+            }
+        } catch (IOException e) {
+            //client went away
+        }
+    }
+
+    private String handle(String[] request) {
+        switch (request[0]) {
+            case "BOOK": {
+                Show show = requireShow(request[1]);
+                List<Seat> seats = new ArrayList<>();
+                for (String seatId : JournalRecords.splitSeatIds(request[5])) {
+                    Seat seat = show.getSeats().get(seatId);
+                    if (seat == null) {
+                        return "NONE";
+                    }
+                    seats.add(seat);
+                }
+                Booking booking = engine.bookTickets(new User(request[2], request[3], request[4]), show, seats);
+                return booking == null ? "NONE" : "OK\t" + TabSeparatedCodec.escape(booking.getId()) + '\t' + booking.getTotalPriceCents();
+            }
+            case "BEST": {
+                Show show = requireShow(request[1]);
+                Booking booking = engine.bookBestAvailable(new User(request[2], request[3], request[4]), show,
+                        Integer.parseInt(request[5]), SeatType.valueOf(request[6]));
+                if (booking == null) {
+                    return "NONE";
+                }
+                return "OK\t" + TabSeparatedCodec.escape(booking.getId()) + '\t' + booking.getTotalPriceCents()
+                        + '\t' + TabSeparatedCodec.escape(JournalRecords.joinSeatIds(booking.getSeats()));
+            }
+            case "CONFIRM":
+                engine.confirmBooking(request[1]);
+                return "OK";
+            case "CANCEL":
+                engine.cancelBooking(request[1]);
+                return "OK";
+            case "NODE":
+                return "OK\t" + engine.getNodeId();
+            default:
+                throw new IllegalArgumentException("Unknown request: " + request[0]);
+        }
+    }
+
+    private Show requireShow(String showId) {
+        Show show = engine.getShow(showId);
+        if (show == null) {
+            throw new IllegalArgumentException("Show not on this shard: " + showId);
+        }
+        return show;
+    }
+
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+        connections.shutdownNow();
+    }
+}
@@ -3,10 +3,12 @@ package PubSubSystem;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 
+import LoggingFramework.context.MDC;
 import PubSubSystem.subscriber.*;
 
 public class Dispatcher {
-    static private final ExecutorService executor = Executors.newCachedThreadPool();
+    //tasks run with the publisher's MDC so log lines can be correlated across threads
+    static private final ExecutorService executor = MDC.wrap(Executors.newCachedThreadPool());
     public Dispatcher(){
     }
 
@@ -0,0 +1,84 @@
+package bench.logging;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import LoggingFramework.LogLevel;
+import LoggingFramework.Logger;
+import LoggingFramework.appender.ConsoleAppender;
+import LoggingFramework.appender.FileAppender;
+import LoggingFramework.appender.LogAppender;
+import LoggingFramework.formatter.SimpleFormatter;
+
+/**
+ * Logger throughput (calls/sec) and caller latency (SampleTime gives p50/p99/p99.9).
+ * Thread count is a run option, see LoggingBenchmarkRunner for the 1..64 sweep.
+ * Run with "-prof gc" to get gc.alloc.rate.norm (bytes allocated per call).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LoggerBenchmark {
+
+    @Param({"console", "file"})
+    public String appender;
+
+    @Param({"16", "256", "4096"})
+    public int messageSize;
+
+    private Logger logger;
+    private LogAppender logAppender;
+    private String message;
+    private File logFile;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        char[] chars = new char[messageSize];
+        Arrays.fill(chars, 'x');
+        message = new String(chars);
+        logAppender = createAppender();
+        logger = new Logger(LogLevel.INFO, List.of(logAppender));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        //closed first, otherwise every trial leaks the file handle
+        logAppender.close();
+        if (logFile != null) {
+            logFile.delete();
+        }
+    }
+
+    private LogAppender createAppender() throws IOException {
+        switch (appender) {
+            case "console":
+                //console output goes to a null stream so we measure the framework, not the terminal
+                return new ConsoleAppender(new SimpleFormatter(), new PrintStream(OutputStream.nullOutputStream()));
+            case "file":
+                logFile = File.createTempFile("logger-bench", ".log");
+                return new FileAppender(logFile.getAbsolutePath(), new SimpleFormatter());
+            default:
+                throw new IllegalArgumentException("Unknown appender: " + appender);
+        }
+    }
+
+    @Benchmark
+    public void enabledCall() {
+        logger.info(message);
+    }
+
+    @Benchmark
+    public void disabledCall() {
+        logger.debug(message);
+    }
+}
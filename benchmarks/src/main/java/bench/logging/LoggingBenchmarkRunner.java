@@ -0,0 +1,37 @@
+package bench.logging;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs LoggerBenchmark once per thread count with the GC profiler attached.
+ * Usage: java -cp benchmarks.jar bench.logging.LoggingBenchmarkRunner [threadCounts...]
+ */
+public class LoggingBenchmarkRunner {
+    private static final int[] DEFAULT_THREAD_COUNTS = {1, 2, 4, 8, 16, 32, 64};
+
+    public static void main(String[] args) throws RunnerException {
+        int[] threadCounts = DEFAULT_THREAD_COUNTS;
+        if (args.length > 0) {
+            threadCounts = new int[args.length];
+            for (int i = 0; i < args.length; i++) {
+                threadCounts[i] = Integer.parseInt(args[i]);
+            }
+        }
+
+        for (int threads : threadCounts) {
+            Options options = new OptionsBuilder()
+                    .include(LoggerBenchmark.class.getSimpleName())
+                    .threads(threads)
+                    .addProfiler(GCProfiler.class)
+                    .resultFormat(ResultFormatType.JSON)
+                    .result("logger-" + threads + "-threads.json")
+                    .build();
+            new Runner(options).run();
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package bench.movie;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import MovieTicketBookingSystem.BookingEngine;
+import MovieTicketBookingSystem.Show;
+import MovieTicketBookingSystem.User;
+import MovieTicketBookingSystem.booking.Booking;
+import MovieTicketBookingSystem.seat.Seat;
+import MovieTicketBookingSystem.seat.SeatType;
+
+/**
+ * Booking engine throughput and latency under contention. Every successful booking is
+ * cancelled again so the show never sells out and each op measures claim + release.
+ * Run with several thread counts, e.g. "-t 1", "-t 16", "-t 64".
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BookingBenchmark {
+
+    @Param({"system", "sharded4"})
+    public String engineName;
+
+    // hotShow: everybody on one show; manyShows: spread over 64 shows
+    @Param({"hotShow", "manyShows"})
+    public String scenario;
+
+    @Param({"1", "4"})
+    public int seatsPerRequest;
+
+    private BookingEngine engine;
+    private List<Show> shows;
+    private final User user = new User("BENCH-U", "Bench User", "bench@example.com");
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        engine = BookingFixtures.createEngine(engineName);
+        shows = BookingFixtures.createShows(engine, scenario.equals("hotShow") ? 1 : 64);
+    }
+
+    @Benchmark
+    public Booking explicitSeats() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Show show = shows.get(random.nextInt(shows.size()));
+        int row = 1 + random.nextInt(BookingFixtures.ROWS);
+        int column = 1 + random.nextInt(BookingFixtures.COLUMNS - seatsPerRequest + 1);
+        List<Seat> seats = BookingFixtures.adjacentSeats(show, row, column, seatsPerRequest);
+        Booking booking = engine.bookTickets(user, show, seats);
+        if (booking != null) {
+            engine.cancelBooking(booking.getId());
+        }
+        return booking;
+    }
+
+    @Benchmark
+    public Booking bestAvailable() {
+        Show show = shows.get(ThreadLocalRandom.current().nextInt(shows.size()));
+        Booking booking = engine.bookBestAvailable(user, show, seatsPerRequest, SeatType.NORMAL);
+        if (booking != null) {
+            engine.cancelBooking(booking.getId());
+        }
+        return booking;
+    }
+}
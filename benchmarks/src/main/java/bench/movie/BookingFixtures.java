@@ -0,0 +1,79 @@
+package bench.movie;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import MovieTicketBookingSystem.BookingEngine;
+import MovieTicketBookingSystem.Movie;
+import MovieTicketBookingSystem.MovieTicketBookingSystem;
+import MovieTicketBookingSystem.Show;
+import MovieTicketBookingSystem.Theater;
+import MovieTicketBookingSystem.seat.Seat;
+import MovieTicketBookingSystem.seat.SeatStatus;
+import MovieTicketBookingSystem.seat.SeatType;
+import MovieTicketBookingSystem.shard.ShardRouter;
+
+/**
+ * Shared setup of the booking benchmarks: engines by name and auditorium-sized shows.
+ */
+final class BookingFixtures {
+    static final int ROWS = 40;
+    static final int COLUMNS = 50;
+
+    private BookingFixtures() {
+    }
+
+    // "system" is a single MovieTicketBookingSystem, "shardedN" routes over N in-process engines
+    static BookingEngine createEngine(String name) {
+        if (name.equals("system")) {
+            return MovieTicketBookingSystem.newInstance();
+        }
+        if (name.startsWith("sharded")) {
+            int shardCount = Integer.parseInt(name.substring("sharded".length()));
+            List<BookingEngine> shards = new ArrayList<>();
+            for (int i = 0; i < shardCount; i++) {
+                shards.add(MovieTicketBookingSystem.newInstance());
+            }
+            return new ShardRouter(shards);
+        }
+        throw new IllegalArgumentException("Unknown engine: " + name);
+    }
+
+    static List<Show> createShows(BookingEngine engine, int count) {
+        Movie movie = new Movie("BENCH-M", "Blockbuster", "On-sale benchmark", 150);
+        Theater theater = new Theater("BENCH-T", "Benchmark Theater", "Bench City", new ArrayList<>());
+        LocalDateTime start = LocalDateTime.now().plusDays(7);
+        List<Show> shows = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Show show = new Show("BENCH-S" + i, movie, theater, start.plusMinutes(i), start.plusMinutes(i + 150), createSeats());
+            engine.addShow(show);
+            shows.add(show);
+        }
+        return shows;
+    }
+
+    static Map<String, Seat> createSeats() {
+        Map<String, Seat> seats = new HashMap<>();
+        for (int row = 1; row <= ROWS; row++) {
+            for (int col = 1; col <= COLUMNS; col++) {
+                String seatId = row + "-" + col;
+                SeatType seatType = (row <= 5) ? SeatType.PREMIUM : SeatType.NORMAL;
+                double price = (seatType == SeatType.PREMIUM) ? 150.0 : 100.0;
+                seats.put(seatId, new Seat(seatId, row, col, seatType, price, SeatStatus.AVAILABLE));
+            }
+        }
+        return seats;
+    }
+
+    // count adjacent seats starting at a random position of a random row
+    static List<Seat> adjacentSeats(Show show, int row, int firstColumn, int count) {
+        List<Seat> seats = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            seats.add(show.getSeats().get(row + "-" + (firstColumn + i)));
+        }
+        return seats;
+    }
+}
@@ -0,0 +1,135 @@
+package bench.movie;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import MovieTicketBookingSystem.BookingEngine;
+import MovieTicketBookingSystem.Show;
+import MovieTicketBookingSystem.User;
+import MovieTicketBookingSystem.booking.Booking;
+import MovieTicketBookingSystem.seat.Seat;
+import MovieTicketBookingSystem.seat.SeatType;
+
+/**
+ * Simulates an on-sale: N users released at the same instant, each trying once to book.
+ * Unlike the JMH benchmark nothing is cancelled, so shows sell out like in production.
+ *
+ * Usage: java -cp benchmarks.jar bench.movie.OnSaleLoadDriver [engine] [scenario] [users] [threads]
+ *   engine:   system | shardedN
+ *   scenario: hotShow | manyShows | overlapping | bestAvailable
+ *
+ * A failed request is a conflict if its show still had enough free seats afterwards
+ * (the wanted seats were taken by someone else, or for bestAvailable no block of that
+ * size was left), otherwise it is a sold-out failure.
+ */
+public class OnSaleLoadDriver {
+
+    public static void main(String[] args) throws InterruptedException {
+        String engineName = args.length > 0 ? args[0] : "system";
+        String scenario = args.length > 1 ? args[1] : "hotShow";
+        int users = args.length > 2 ? Integer.parseInt(args[2]) : 50_000;
+        int threads = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors() * 4;
+
+        BookingEngine engine = BookingFixtures.createEngine(engineName);
+        List<Show> shows = BookingFixtures.createShows(engine, scenario.equals("manyShows") ? 100 : 1);
+
+        AtomicInteger nextUser = new AtomicInteger();
+        AtomicLong successes = new AtomicLong();
+        AtomicLong seatsBooked = new AtomicLong();
+        AtomicLong conflicts = new AtomicLong();
+        AtomicLong soldOut = new AtomicLong();
+        long[][] latencies = new long[threads][];
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(threads);
+
+        for (int t = 0; t < threads; t++) {
+            int threadIndex = t;
+            Thread worker = new Thread(() -> {
+                long[] recorded = new long[users / threads + 1];
+                int count = 0;
+                try {
+                    start.await();
+                    int userIndex;
+                    while ((userIndex = nextUser.getAndIncrement()) < users) {
+                        User user = new User("U" + userIndex, "User " + userIndex, "u" + userIndex + "@example.com");
+                        ThreadLocalRandom random = ThreadLocalRandom.current();
+                        Show show = shows.get(random.nextInt(shows.size()));
+                        int seatCount = 1 + random.nextInt(4);
+
+                        long begin = System.nanoTime();
+                        Booking booking = attempt(scenario, engine, user, show, seatCount, random);
+                        long elapsed = System.nanoTime() - begin;
+                        if (count == recorded.length) {
+                            recorded = Arrays.copyOf(recorded, count * 2);
+                        }
+                        recorded[count++] = elapsed;
+
+                        if (booking != null) {
+                            successes.incrementAndGet();
+                            seatsBooked.addAndGet(booking.getSeats().size());
+                        } else if (show.getAvailability().getTotalAvailable() >= seatCount) {
+                            conflicts.incrementAndGet();
+                        } else {
+                            soldOut.incrementAndGet();
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    latencies[threadIndex] = Arrays.copyOf(recorded, count);
+                    done.countDown();
+                }
+            }, "on-sale-user-" + t);
+            worker.start();
+        }
+
+        long begin = System.nanoTime();
+        start.countDown();
+        done.await();
+        long elapsedNanos = System.nanoTime() - begin;
+
+        long[] all = Arrays.stream(latencies).flatMapToLong(Arrays::stream).sorted().toArray();
+        double seconds = elapsedNanos / 1e9;
+        System.out.printf("engine=%s scenario=%s users=%d threads=%d shows=%d%n", engineName, scenario, users, threads, shows.size());
+        System.out.printf("elapsed %.3f s, %.0f requests/s, %.0f bookings/s, %d seats booked%n",
+                seconds, all.length / seconds, successes.get() / seconds, seatsBooked.get());
+        System.out.printf("success %d, conflict %d (%.2f%%), sold out %d (%.2f%%)%n",
+                successes.get(), conflicts.get(), 100.0 * conflicts.get() / users, soldOut.get(), 100.0 * soldOut.get() / users);
+        System.out.printf("latency us: p50=%.1f p90=%.1f p99=%.1f p99.9=%.1f max=%.1f%n",
+                percentile(all, 50), percentile(all, 90), percentile(all, 99), percentile(all, 99.9), all.length == 0 ? 0 : all[all.length - 1] / 1000.0);
+    }
+
+    private static Booking attempt(String scenario, BookingEngine engine, User user, Show show, int seatCount, ThreadLocalRandom random) {
+        switch (scenario) {
+            case "hotShow":
+            case "manyShows": {
+                int row = 1 + random.nextInt(BookingFixtures.ROWS);
+                int column = 1 + random.nextInt(BookingFixtures.COLUMNS - seatCount + 1);
+                return engine.bookTickets(user, show, BookingFixtures.adjacentSeats(show, row, column, seatCount));
+            }
+            case "overlapping": {
+                //everyone wants the same few centre rows, so multi-seat requests overlap heavily
+                int row = BookingFixtures.ROWS / 2 + random.nextInt(3);
+                int column = BookingFixtures.COLUMNS / 2 - 5 + random.nextInt(10);
+                return engine.bookTickets(user, show, BookingFixtures.adjacentSeats(show, row, column, seatCount));
+            }
+            case "bestAvailable":
+                return engine.bookBestAvailable(user, show, seatCount, SeatType.NORMAL);
+            default:
+                throw new IllegalArgumentException("Unknown scenario: " + scenario);
+        }
+    }
+
+    private static double percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.min(sorted.length - 1, Math.ceil(percentile / 100.0 * sorted.length) - 1);
+        return sorted[Math.max(0, index)] / 1000.0;
+    }
+}
@@ -0,0 +1,55 @@
+package bench.registration;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import CourseRegistrationSystem.RegistrationResult;
+
+/**
+ * Registration week contention: every op registers a random student for a course and,
+ * if the student already had it, drops it instead, so enrollment keeps churning around
+ * the capacity limit. Invariants are verified after every iteration.
+ * Run with several thread counts, e.g. "-t 1", "-t 16", "-t 64".
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RegistrationBenchmark {
+
+    // hot: everybody wants the same 10 courses; uniform: spread over all courses
+    @Param({"hot", "uniform"})
+    public String distribution;
+
+    // 0 turns full courses away, otherwise students queue and are promoted on drops
+    @Param({"0", "1000"})
+    public int waitlistCapacity;
+
+    private RegistrationFixtures fixtures;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        fixtures = new RegistrationFixtures(500, 50_000, 100, waitlistCapacity);
+    }
+
+    @TearDown(Level.Iteration)
+    public void verify() {
+        fixtures.verifyInvariants();
+    }
+
+    @Benchmark
+    public RegistrationResult registerOrDrop() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String studentId = fixtures.pickStudent(random);
+        String courseCode = fixtures.pickCourse(distribution, random);
+        RegistrationResult result = fixtures.system.registerStudentForCourse(studentId, courseCode);
+        if (result == RegistrationResult.ALREADY_ENROLLED) {
+            result = fixtures.system.dropStudentFromCourse(studentId, courseCode);
+        }
+        return result;
+    }
+}
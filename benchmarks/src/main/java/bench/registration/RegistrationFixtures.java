@@ -0,0 +1,117 @@
+package bench.registration;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import CourseRegistrationSystem.Course;
+import CourseRegistrationSystem.CourseRegistrationSystem;
+import CourseRegistrationSystem.Student;
+
+/**
+ * Students and courses for the registration benchmarks. CourseRegistrationSystem is a
+ * singleton, so every setup registers its own ids under a fresh prefix.
+ */
+final class RegistrationFixtures {
+    static final int HOT_COURSES = 10;
+
+    final CourseRegistrationSystem system = CourseRegistrationSystem.getInstance();
+    final List<Course> courses = new ArrayList<>();
+    final List<Student> students = new ArrayList<>();
+    final String[] courseCodes;
+    final String[] studentIds;
+
+    private static int nextPrefix;
+
+    RegistrationFixtures(int courseCount, int studentCount, int capacity, int waitlistCapacity) {
+        String prefix = "R" + nextPrefix() + "-";
+        courseCodes = new String[courseCount];
+        studentIds = new String[studentCount];
+        for (int i = 0; i < courseCount; i++) {
+            Course course = new Course(prefix + "C" + i, "Course " + i, 3, capacity, waitlistCapacity);
+            system.addCourse(course);
+            courses.add(course);
+            courseCodes[i] = course.getCode();
+        }
+        for (int i = 0; i < studentCount; i++) {
+            Student student = new Student(prefix + "S" + i, "Student " + i, "s" + i + "@example.com");
+            system.addStudent(student);
+            students.add(student);
+            studentIds[i] = student.getId();
+        }
+    }
+
+    private static synchronized int nextPrefix() {
+        return nextPrefix++;
+    }
+
+    // hot: everyone wants the same HOT_COURSES courses; uniform: any course
+    String pickCourse(String distribution, Random random) {
+        switch (distribution) {
+            case "hot":
+                return courseCodes[random.nextInt(Math.min(HOT_COURSES, courseCodes.length))];
+            case "uniform":
+                return courseCodes[random.nextInt(courseCodes.length)];
+            default:
+                throw new IllegalArgumentException("Unknown distribution: " + distribution);
+        }
+    }
+
+    String pickStudent(Random random) {
+        return studentIds[random.nextInt(studentIds.length)];
+    }
+
+    /**
+     * Throws IllegalStateException unless no course is over capacity and every
+     * enrollment is recorded exactly once on both the course and the student side.
+     * Waitlist promotions finish in the background, so a mismatch is re-checked a few
+     * times before it is reported.
+     */
+    void verifyInvariants() {
+        String violation = findViolation();
+        for (int attempt = 0; violation != null && attempt < 20; attempt++) {
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            violation = findViolation();
+        }
+        if (violation != null) {
+            throw new IllegalStateException(violation);
+        }
+    }
+
+    private String findViolation() {
+        long courseSide = 0;
+        for (Course course : courses) {
+            List<String> enrolled = course.getEnrolledStudentIds();
+            if (enrolled.size() > course.getCapacity()) {
+                return "Course " + course.getCode() + " over capacity: " + enrolled.size() + "/" + course.getCapacity();
+            }
+            if (enrolled.stream().distinct().count() != enrolled.size()) {
+                return "Course " + course.getCode() + " lists a student twice";
+            }
+            courseSide += enrolled.size();
+        }
+        long studentSide = 0;
+        for (Student student : students) {
+            List<String> enrolledCourses = student.getEnrolledCourses();
+            if (enrolledCourses.stream().distinct().count() != enrolledCourses.size()) {
+                return "Student " + student.getId() + " lists a course twice";
+            }
+            for (String courseCode : enrolledCourses) {
+                Course course = courses.get(Integer.parseInt(courseCode.substring(courseCode.lastIndexOf('C') + 1)));
+                if (!course.hasStudent(student.getId())) {
+                    return "Student " + student.getId() + " enrolled in " + courseCode + " but missing from the course";
+                }
+            }
+            studentSide += enrolledCourses.size();
+        }
+        if (courseSide != studentSide) {
+            return "Enrollments differ: " + courseSide + " on courses, " + studentSide + " on students";
+        }
+        return null;
+    }
+}
@@ -0,0 +1,102 @@
+package bench.registration;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import CourseRegistrationSystem.RegistrationResult;
+
+/**
+ * Registration opening: N requests from many threads at once, each a register, or a
+ * drop for one in dropPercent. Reports throughput, latency percentiles and the result
+ * mix, then verifies the invariants (no course over capacity, no double enrollment).
+ *
+ * Usage: java -cp benchmarks.jar bench.registration.RegistrationLoadDriver [distribution] [requests] [threads] [dropPercent] [waitlistCapacity]
+ *   distribution: hot | uniform
+ */
+public class RegistrationLoadDriver {
+
+    public static void main(String[] args) throws InterruptedException {
+        String distribution = args.length > 0 ? args[0] : "hot";
+        int requests = args.length > 1 ? Integer.parseInt(args[1]) : 500_000;
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors() * 4;
+        int dropPercent = args.length > 3 ? Integer.parseInt(args[3]) : 20;
+        int waitlistCapacity = args.length > 4 ? Integer.parseInt(args[4]) : 1000;
+
+        RegistrationFixtures fixtures = new RegistrationFixtures(500, 50_000, 100, waitlistCapacity);
+        AtomicInteger nextRequest = new AtomicInteger();
+        AtomicLongArray resultCounts = new AtomicLongArray(RegistrationResult.values().length);
+        long[][] latencies = new long[threads][];
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(threads);
+
+        for (int t = 0; t < threads; t++) {
+            int threadIndex = t;
+            Thread worker = new Thread(() -> {
+                long[] recorded = new long[requests / threads + 1];
+                int count = 0;
+                try {
+                    start.await();
+                    while (nextRequest.getAndIncrement() < requests) {
+                        ThreadLocalRandom random = ThreadLocalRandom.current();
+                        String studentId = fixtures.pickStudent(random);
+                        String courseCode = fixtures.pickCourse(distribution, random);
+                        boolean drop = random.nextInt(100) < dropPercent;
+
+                        long begin = System.nanoTime();
+                        RegistrationResult result = drop
+                                ? fixtures.system.dropStudentFromCourse(studentId, courseCode)
+                                : fixtures.system.registerStudentForCourse(studentId, courseCode);
+                        long elapsed = System.nanoTime() - begin;
+                        if (count == recorded.length) {
+                            recorded = Arrays.copyOf(recorded, count * 2);
+                        }
+                        recorded[count++] = elapsed;
+                        resultCounts.incrementAndGet(result.ordinal());
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    latencies[threadIndex] = Arrays.copyOf(recorded, count);
+                    done.countDown();
+                }
+            }, "registration-user-" + t);
+            worker.start();
+        }
+
+        long begin = System.nanoTime();
+        start.countDown();
+        done.await();
+        long elapsedNanos = System.nanoTime() - begin;
+
+        long[] all = Arrays.stream(latencies).flatMapToLong(Arrays::stream).sorted().toArray();
+        double seconds = elapsedNanos / 1e9;
+        Map<RegistrationResult, Long> mix = new EnumMap<>(RegistrationResult.class);
+        for (RegistrationResult result : RegistrationResult.values()) {
+            if (resultCounts.get(result.ordinal()) > 0) {
+                mix.put(result, resultCounts.get(result.ordinal()));
+            }
+        }
+        System.out.printf("distribution=%s requests=%d threads=%d drops=%d%% waitlist=%d%n",
+                distribution, requests, threads, dropPercent, waitlistCapacity);
+        System.out.printf("elapsed %.3f s, %.0f requests/s%n", seconds, all.length / seconds);
+        System.out.println("results " + mix);
+        System.out.printf("latency us: p50=%.1f p90=%.1f p99=%.1f p99.9=%.1f max=%.1f%n",
+                percentile(all, 50), percentile(all, 90), percentile(all, 99), percentile(all, 99.9), all.length == 0 ? 0 : all[all.length - 1] / 1000.0);
+
+        fixtures.verifyInvariants();
+        System.out.println("invariants ok: no course over capacity, no double enrollment");
+    }
+
+    private static double percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.min(sorted.length - 1, Math.ceil(percentile / 100.0 * sorted.length) - 1);
+        return sorted[Math.max(0, index)] / 1000.0;
+    }
+}